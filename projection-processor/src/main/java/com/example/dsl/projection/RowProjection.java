@@ -0,0 +1,21 @@
+package com.example.dsl.projection;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 생성자에 붙이면 같은 패키지에 {@code <Dto>Projection} 이 생성된다.
+ * QueryProjection(ConstructorExpression) 과 달리 row 마다 reflection 으로 생성자를 찾거나 호출하지 않는다.
+ *
+ * <pre>
+ * queryFactory.select(MemberTeamDtoProjection.of(member.id, member.username, ...))
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.CONSTRUCTOR)
+public @interface RowProjection {
+}
@@ -0,0 +1,159 @@
+package com.example.dsl.projection;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+@SupportedAnnotationTypes("com.example.dsl.projection.RowProjection")
+public class RowProjectionProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(RowProjection.class)) {
+            ExecutableElement constructor = (ExecutableElement) element;
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC) || constructor.getParameters().isEmpty()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "@RowProjection constructor must be public and take at least one argument", constructor);
+                continue;
+            }
+            try {
+                write((TypeElement) constructor.getEnclosingElement(), constructor);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate projection: " + e.getMessage(), constructor);
+            }
+        }
+        return true;
+    }
+
+    private void write(TypeElement dto, ExecutableElement constructor) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(dto).getQualifiedName().toString();
+        String dtoName = dto.getSimpleName().toString();
+        String className = dtoName + "Projection";
+        List<? extends VariableElement> parameters = constructor.getParameters();
+
+        String expressionParameters = parameters.stream()
+            .map(p -> "Expression<" + boxed(p.asType()) + "> " + p.getSimpleName())
+            .collect(Collectors.joining(", "));
+        String expressionNames = parameters.stream()
+            .map(p -> p.getSimpleName().toString())
+            .collect(Collectors.joining(", "));
+
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                arguments.append(",\n            ");
+            }
+            arguments.append(argument(parameters.get(i).asType(), i));
+        }
+
+        JavaFileObject file = processingEnv.getFiler()
+            .createSourceFile(packageName + "." + className, dto);
+        try (Writer out = file.openWriter()) {
+            out.write("package " + packageName + ";\n"
+                + "\n"
+                + "import java.util.Arrays;\n"
+                + "import java.util.Collections;\n"
+                + "import java.util.List;\n"
+                + "import javax.annotation.processing.Generated;\n"
+                + "\n"
+                + "import com.querydsl.core.types.Expression;\n"
+                + "import com.querydsl.core.types.FactoryExpressionBase;\n"
+                + "import com.querydsl.core.types.Visitor;\n"
+                + "\n"
+                + "/**\n"
+                + " * {@link " + dtoName + "} 생성자를 직접 호출하는 projection (@RowProjection 으로 생성됨)\n"
+                + " */\n"
+                + "@Generated(\"" + RowProjectionProcessor.class.getName() + "\")\n"
+                + "public final class " + className + " extends FactoryExpressionBase<" + dtoName + "> {\n"
+                + "\n"
+                + "    private static final long serialVersionUID = 1L;\n"
+                + "\n"
+                + "    private final List<Expression<?>> args;\n"
+                + "\n"
+                + "    private " + className + "(" + expressionParameters + ") {\n"
+                + "        super(" + dtoName + ".class);\n"
+                + "        this.args = Collections.unmodifiableList(Arrays.<Expression<?>>asList(" + expressionNames + "));\n"
+                + "    }\n"
+                + "\n"
+                + "    public static " + className + " of(" + expressionParameters + ") {\n"
+                + "        return new " + className + "(" + expressionNames + ");\n"
+                + "    }\n"
+                + "\n"
+                + "    @Override\n"
+                + "    public List<Expression<?>> getArgs() {\n"
+                + "        return args;\n"
+                + "    }\n"
+                + "\n"
+                + "    @Override\n"
+                + "    @SuppressWarnings(\"unchecked\")\n"
+                + "    public " + dtoName + " newInstance(Object... a) {\n"
+                + "        return new " + dtoName + "(\n"
+                + "            " + arguments + ");\n"
+                + "    }\n"
+                + "\n"
+                + "    @Override\n"
+                + "    public <R, C> R accept(Visitor<R, C> v, C context) {\n"
+                + "        return v.visit(this, context);\n"
+                + "    }\n"
+                + "}\n");
+        }
+    }
+
+    // null 이 올 수 있는 primitive 인자는 기본값으로 (left join 으로 비어 있는 컬럼)
+    private String argument(TypeMirror type, int index) {
+        if (!type.getKind().isPrimitive()) {
+            return "(" + type + ") a[" + index + "]";
+        }
+        return "a[" + index + "] != null ? (" + boxed(type) + ") a[" + index + "] : " + defaultValue(type.getKind());
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private static String defaultValue(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return "false";
+            case CHAR:
+                return "'\\0'";
+            case LONG:
+                return "0L";
+            case FLOAT:
+                return "0F";
+            case DOUBLE:
+                return "0D";
+            case BYTE:
+                return "(byte) 0";
+            case SHORT:
+                return "(short) 0";
+            default:
+                return "0";
+        }
+    }
+}
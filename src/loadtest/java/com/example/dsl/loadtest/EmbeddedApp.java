@@ -0,0 +1,38 @@
+package com.example.dsl.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.dsl.DslApplication;
+
+/**
+ * 부하 테스트 대상 애플리케이션을 같은 JVM 에서 띄운다.
+ * 메모리 H2 + InitMember(local) 시딩, SQL 로그는 끈다.
+ */
+public final class EmbeddedApp {
+
+    private EmbeddedApp() {
+    }
+
+    public static ConfigurableApplicationContext start(String database, int seedCount, String... extraArgs) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+            "--server.port=0",
+            "--spring.profiles.active=local",
+            "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+            "--app.startup.seed-mode=BLOCKING",
+            "--app.startup.seed-count=" + seedCount,
+            "--decorator.datasource.p6spy.enable-logging=false",
+            "--logging.level.org.hibernate.SQL=warn",
+            "--logging.level.org.hibernate.type=warn"));
+        args.addAll(Arrays.asList(extraArgs));
+        return new SpringApplicationBuilder(DslApplication.class).run(args.toArray(new String[0]));
+    }
+
+    public static String baseUrl(ConfigurableApplicationContext app) {
+        return "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+    }
+}
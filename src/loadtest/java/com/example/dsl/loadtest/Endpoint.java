@@ -0,0 +1,97 @@
+package com.example.dsl.loadtest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하를 줄 MemberController API
+ * 검색 API 는 MemberSearchCondition 파라미터를 랜덤으로 만든다.
+ */
+public enum Endpoint {
+
+    V1("/v1/members") {
+        @Override
+        String path(List<Long> memberIds) {
+            return "/v1/members?" + randomCondition();
+        }
+    },
+    V2("/v2/members") {
+        @Override
+        String path(List<Long> memberIds) {
+            return "/v2/members?" + randomCondition() + randomPage();
+        }
+    },
+    V3("/v3/members") {
+        @Override
+        String path(List<Long> memberIds) {
+            return "/v3/members?" + randomCondition() + randomPage();
+        }
+    },
+    MEMBERS("/members") {
+        @Override
+        String path(List<Long> memberIds) {
+            return "/members?page=" + random().nextInt(20) + "&size=20&sort=id,desc";
+        }
+    },
+    MEMBERS_PAGE("/members_page") {
+        @Override
+        String path(List<Long> memberIds) {
+            return "/members_page?page=" + random().nextInt(20);
+        }
+    },
+    MEMBER_BY_ID("/members/{id}") {
+        @Override
+        String path(List<Long> memberIds) {
+            return "/members/" + memberIds.get(random().nextInt(memberIds.size()));
+        }
+    };
+
+    private static final String[] TEAMS = {"teamA", "teamB", "teamC"};
+
+    private final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    abstract String path(List<Long> memberIds);
+
+    public static Endpoint fromLabel(String value) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.name().equalsIgnoreCase(value) || endpoint.label.equals(value)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + value);
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+
+    // 조건마다 절반 확률로 넣는다 (아무 조건 없는 전체 조회도 섞임)
+    private static String randomCondition() {
+        StringBuilder query = new StringBuilder();
+        if (random().nextBoolean()) {
+            query.append("teamName=").append(TEAMS[random().nextInt(TEAMS.length)]).append('&');
+        }
+        if (random().nextBoolean()) {
+            query.append("ageGoe=").append(random().nextInt(50)).append('&');
+        }
+        if (random().nextBoolean()) {
+            query.append("ageLoe=").append(50 + random().nextInt(50)).append('&');
+        }
+        if (random().nextInt(10) == 0) {
+            query.append("username=member").append(random().nextInt(100)).append('&');
+        }
+        return query.toString();
+    }
+
+    private static String randomPage() {
+        return "page=" + random().nextInt(10) + "&size=" + (10 + random().nextInt(41));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.dsl.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 가중치에 따라 API 를 고른다.
+ * "V1:1,V3:2,MEMBER_BY_ID:5" 형식
+ */
+public class EndpointMix {
+
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    private EndpointMix(Map<Endpoint, Integer> weights) {
+        this.endpoints = weights.keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[endpoints.length];
+        int sum = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            sum += weights.get(endpoints[i]);
+            cumulativeWeights[i] = sum;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("Endpoint mix has no positive weight");
+        }
+    }
+
+    public static EndpointMix parse(String spec) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.trim().split(":");
+            weights.put(Endpoint.fromLabel(pair[0]), pair.length > 1 ? Integer.parseInt(pair[1]) : 1);
+        }
+        return new EndpointMix(weights);
+    }
+
+    public Endpoint next() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    public Endpoint[] endpoints() {
+        return endpoints.clone();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.dsl.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.dsl.entity.Member;
+
+/**
+ * member 를 수천 건 읽은 트랜잭션에서 flush 한 번에 걸리는 시간을 잰다.
+ * bytecode enhancement(dirty tracking)가 없으면 영속성 컨텍스트의 모든 엔티티를 스냅샷과 비교하고,
+ * 있으면 setter 가 기록한 속성만 본다. 바꾼 건수가 0 인 줄이 순수한 dirty checking 비용
+ * 매 라운드 rollback 해서 데이터는 그대로 둔다. 읽기 시간은 빼고 flush 만 잰다.
+ *
+ * ./gradlew flushBenchmark -PloadArgs="20000 5000 50"
+ * ./gradlew flushBenchmark -PloadArgs="20000 5000 50" -PhibernateEnhance=false   (enhancement 없이 비교)
+ *   args: 시딩 건수, 트랜잭션당 읽는 member 수, 라운드 수
+ */
+public class FlushBenchmark {
+
+    private static final double[] MODIFIED_RATIOS = {0, 0.01, 0.1};
+
+    public static void main(String[] args) {
+        int seedCount = intArg(args, 0, 20000);
+        int loadCount = intArg(args, 1, 5000);
+        int rounds = intArg(args, 2, 50);
+
+        // flush 외의 작업(워밍업, 변경 로그, 캐시 저장)은 끈다
+        try (ConfigurableApplicationContext app = EmbeddedApp.start("flush", seedCount,
+            "--app.warmup.enabled=false", "--app.change-log.enabled=false", "--app.cache-snapshot.enabled=false")) {
+            EntityManagerFactory emf = app.getBean(EntityManagerFactory.class);
+
+            System.out.printf("seed=%d load=%d rounds=%d enhanced=%s%n",
+                seedCount, loadCount, rounds, SelfDirtinessTracker.class.isAssignableFrom(Member.class));
+            System.out.printf("%-10s %10s %12s %12s %12s%n", "modified", "entities", "p50 us", "p99 us", "mean us");
+            for (double ratio : MODIFIED_RATIOS) {
+                int modified = (int) (loadCount * ratio);
+                for (int i = 0; i < Math.max(1, rounds / 5); i++) {
+                    flushOnce(emf, loadCount, modified);
+                }
+                long[] samples = new long[rounds];
+                int entities = 0;
+                for (int i = 0; i < rounds; i++) {
+                    long[] result = flushOnce(emf, loadCount, modified);
+                    samples[i] = result[0];
+                    entities = (int) result[1];
+                }
+                Arrays.sort(samples);
+                System.out.printf("%-10d %10d %12.1f %12.1f %12.1f%n", modified, entities,
+                    percentileMicros(samples, 50), percentileMicros(samples, 99),
+                    Arrays.stream(samples).average().orElse(0) / 1_000.0);
+            }
+        }
+    }
+
+    // {flush 나노초, 영속성 컨텍스트 엔티티 수}
+    private static long[] flushOnce(EntityManagerFactory emf, int loadCount, int modified) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            // team 도 영속성 컨텍스트에 올린다
+            List<Member> members = em.createQuery("select m from Member m left join fetch m.team order by m.id", Member.class)
+                .setMaxResults(loadCount)
+                .getResultList();
+            for (int i = 0; i < modified; i++) {
+                Member member = members.get(i);
+                member.setAge(member.getAge() + 1);
+            }
+
+            long start = System.nanoTime();
+            em.flush();
+            long elapsed = System.nanoTime() - start;
+
+            int entities = em.unwrap(Session.class).getStatistics().getEntityCount();
+            return new long[] {elapsed, entities};
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    private static double percentileMicros(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p / 100 * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000.0;
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.dsl.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * API 별 지연시간(HdrHistogram), 처리량, 에러율
+ */
+public class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private final Duration duration;
+
+    public LatencyReport(Endpoint[] endpoints, Duration duration) {
+        this.duration = duration;
+        for (Endpoint endpoint : endpoints) {
+            histograms.put(endpoint, new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    public void record(Endpoint endpoint, long latencyNanos, boolean success) {
+        histograms.get(endpoint).recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        if (!success) {
+            errors.get(endpoint).increment();
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<Endpoint, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue().copy();
+            long errorCount = errors.get(entry.getKey()).sum();
+            endpoints.put(entry.getKey().getLabel(), summary(histogram, errorCount));
+            total.add(histogram);
+            totalErrors += errorCount;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("durationSeconds", duration.getSeconds());
+        report.put("total", summary(total, totalErrors));
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private Map<String, Object> summary(Histogram histogram, long errorCount) {
+        long count = histogram.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errorCount);
+        summary.put("errorRate", count == 0 ? 0.0 : (double) errorCount / count);
+        summary.put("throughputPerSecond", (double) count / Math.max(1, duration.getSeconds()));
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + percentile, millis(histogram.getValueAtPercentile(percentile)));
+        }
+        percentiles.put("max", millis(histogram.getMaxValue()));
+        summary.put("latencyMillis", percentiles);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    public String toText() {
+        StringBuilder text = new StringBuilder(String.format("%-16s %9s %7s %8s %10s %10s %10s %10s %10s%n",
+            "endpoint", "requests", "err%", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)"));
+        Map<String, Object> report = toMap();
+        Map<String, Object> rows = new LinkedHashMap<>((Map<String, Object>) report.get("endpoints"));
+        rows.put("TOTAL", report.get("total"));
+        for (Map.Entry<String, Object> row : rows.entrySet()) {
+            Map<String, Object> summary = (Map<String, Object>) row.getValue();
+            Map<String, Double> latency = (Map<String, Double>) summary.get("latencyMillis");
+            text.append(String.format("%-16s %9d %6.2f%% %8.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                row.getKey(), summary.get("requests"), (double) summary.get("errorRate") * 100,
+                summary.get("throughputPerSecond"),
+                latency.get("p50.0"), latency.get("p90.0"), latency.get("p99.0"), latency.get("p99.9"),
+                latency.get("max")));
+        }
+        return text.toString();
+    }
+
+    public String toJson() throws Exception {
+        return new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(toMap());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
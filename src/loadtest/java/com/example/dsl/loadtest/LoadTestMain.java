@@ -0,0 +1,100 @@
+package com.example.dsl.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 엔드투엔드 부하 테스트
+ * 메모리 H2 에 시딩한 DslApplication 을 띄우고, API 믹스를 open model 로 호출해서
+ * API 별 지연시간 백분위/처리량/에러율을 텍스트와 JSON 으로 남긴다.
+ * (직렬화, 커넥션 풀, 톰캣까지 포함한 지연시간)
+ *
+ * ./gradlew loadTest -PloadArgs="--rate=300 --duration=60 --mix=V1:1,V2:2,V3:2,MEMBERS:1,MEMBERS_PAGE:1,MEMBER_BY_ID:5"
+ *   --rate         초당 요청 수 (기본 200)
+ *   --duration     측정 시간(초) (기본 30)
+ *   --warmup       측정 전 워밍업 시간(초) (기본 10)
+ *   --mix          API:가중치 목록 (기본 전체 1:1)
+ *   --seed         시딩할 회원 수 (기본 10000)
+ *   --outstanding  동시에 대기 중인 요청 한도 (기본 2000)
+ *   --json         JSON 리포트 경로 (기본 build/loadtest/report.json)
+ *   --app-args     애플리케이션에 넘길 추가 인자, 세미콜론 구분 (ex. --app.threads.virtual=true)
+ */
+public class LoadTestMain {
+
+    private static final String DEFAULT_MIX = "V1:1,V2:1,V3:1,MEMBERS:1,MEMBERS_PAGE:1,MEMBER_BY_ID:1";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        EndpointMix mix = EndpointMix.parse(options.getOrDefault("mix", DEFAULT_MIX));
+        int seed = Integer.parseInt(options.getOrDefault("seed", "10000"));
+        int outstanding = Integer.parseInt(options.getOrDefault("outstanding", "2000"));
+        Path json = Paths.get(options.getOrDefault("json", "build/loadtest/report.json"));
+        String[] appArgs = options.containsKey("app-args") ? options.get("app-args").split(";") : new String[0];
+
+        try (ConfigurableApplicationContext app = EmbeddedApp.start("loadtest", seed, appArgs)) {
+            String baseUrl = EmbeddedApp.baseUrl(app);
+            List<Long> memberIds = memberIds(baseUrl);
+            OpenModelDriver driver = new OpenModelDriver(baseUrl, mix, memberIds, outstanding, Duration.ofSeconds(30));
+
+            if (!warmup.isZero()) {
+                driver.run(rate, warmup);
+            }
+            LatencyReport report = driver.run(rate, duration);
+
+            System.out.printf("rate=%.0f/s duration=%ds seed=%d%n", rate, duration.getSeconds(), seed);
+            System.out.print(report.toText());
+            if (json.getParent() != null) {
+                Files.createDirectories(json.getParent());
+            }
+            Files.write(json, report.toJson().getBytes(StandardCharsets.UTF_8));
+            System.out.println("JSON report: " + json.toAbsolutePath());
+        }
+    }
+
+    // /members/{id} 에 쓸 실제 id 목록
+    private static List<Long> memberIds(String baseUrl) throws IOException, InterruptedException {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/v1/members")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode node : new ObjectMapper().readTree(response.body())) {
+            ids.add(node.get("memberId").asLong());
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No seeded members found");
+        }
+        return ids;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but was " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
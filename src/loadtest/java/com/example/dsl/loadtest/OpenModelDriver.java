@@ -0,0 +1,81 @@
+package com.example.dsl.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.example.dsl.config.VirtualThreads;
+
+/**
+ * open model 부하: 응답 여부와 상관없이 정해진 도착률(req/s)로 요청을 보낸다. (포아송 도착)
+ * 지연시간은 "보내야 했던 시각"부터 잰다 -> 서버가 밀려도 coordinated omission 이 생기지 않음
+ */
+public class OpenModelDriver {
+
+    private final String baseUrl;
+    private final EndpointMix mix;
+    private final List<Long> memberIds;
+    private final int maxOutstanding;
+    private final Duration requestTimeout;
+    private final HttpClient http;
+
+    public OpenModelDriver(String baseUrl, EndpointMix mix, List<Long> memberIds,
+        int maxOutstanding, Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.memberIds = memberIds;
+        this.maxOutstanding = maxOutstanding;
+        this.requestTimeout = requestTimeout;
+        this.http = HttpClient.newBuilder()
+            // 응답을 기다리는 클라이언트가 많아서 가능하면 virtual thread 로
+            .executor(VirtualThreads.isSupported() ? VirtualThreads.newExecutor() : Executors.newCachedThreadPool())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    public LatencyReport run(double ratePerSecond, Duration duration) throws InterruptedException {
+        LatencyReport report = new LatencyReport(mix.endpoints(), duration);
+        Semaphore outstanding = new Semaphore(maxOutstanding);
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long intended = start;
+        while (intended < end) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(mix.next(), intended, outstanding, report);
+            intended += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+        }
+        // 진행 중인 요청이 끝날 때까지 대기
+        outstanding.tryAcquire(maxOutstanding, requestTimeout.getSeconds() + 5, TimeUnit.SECONDS);
+        return report;
+    }
+
+    private void send(Endpoint endpoint, long intendedNanos, Semaphore outstanding, LatencyReport report) {
+        // 클라이언트 쪽 한도를 넘으면 보내지 못한 것도 에러로 기록
+        if (!outstanding.tryAcquire()) {
+            report.record(endpoint, System.nanoTime() - intendedNanos, false);
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint.path(memberIds)))
+            .timeout(requestTimeout)
+            .build();
+        http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, error) -> {
+                outstanding.release();
+                boolean success = error == null && response.statusCode() < 400;
+                report.record(endpoint, System.nanoTime() - intendedNanos, success);
+            });
+    }
+}
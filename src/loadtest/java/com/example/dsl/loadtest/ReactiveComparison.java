@@ -0,0 +1,185 @@
+package com.example.dsl.loadtest;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.dsl.config.VirtualThreads;
+
+/**
+ * 같은 검색 결과를 servlet 방식(/v1/members, 결과를 다 모아서 한 번에)과
+ * reactive 방식(/v4/members, 한 줄씩 스트리밍)으로 받는 느린 클라이언트를 여러 개 붙여서 비교한다.
+ * 클라이언트는 chunk 하나를 읽을 때마다 쉬어서 TCP backpressure 가 서버까지 전해진다.
+ *
+ * 처리량/지연시간과 함께 측정 중 최대값을 남긴다.
+ * - heap: 서버가 응답을 메모리에 모아 두는지
+ * - tomcat worker: 느린 클라이언트가 요청 스레드를 붙잡는지
+ * 클라이언트도 같은 JVM 이므로 heap 에는 클라이언트 몫도 들어 있다 (두 방식에 같은 양).
+ *
+ * ./gradlew reactiveComparison -PloadArgs="200 20 20000 5"
+ *   args: 동시 클라이언트 수, endpoint 별 측정 시간(초), 시딩 건수, chunk 사이 쉬는 시간(ms)
+ */
+public class ReactiveComparison {
+
+    private static final int CHUNK = 8 * 1024;
+    private static final long SAMPLE_INTERVAL_MILLIS = 100;
+
+    public static void main(String[] args) throws Exception {
+        int clients = intArg(args, 0, 200);
+        Duration duration = Duration.ofSeconds(intArg(args, 1, 20));
+        int seedCount = intArg(args, 2, 20000);
+        long pauseMillis = intArg(args, 3, 5);
+
+        System.out.printf("clients=%d duration=%ds seed=%d pause=%dms per %dKB%n",
+            clients, duration.getSeconds(), seedCount, pauseMillis, CHUNK / 1024);
+        // 비교 대상만 재도록 admission(429) 은 끈다
+        try (ConfigurableApplicationContext app = EmbeddedApp.start("reactive", seedCount,
+            "--app.admission.enabled=false")) {
+            String baseUrl = EmbeddedApp.baseUrl(app);
+            run(baseUrl, "servlet  /v1", "/v1/members", "application/json", clients, duration, pauseMillis);
+            run(baseUrl, "reactive /v4", "/v4/members", "application/stream+json", clients, duration, pauseMillis);
+        }
+    }
+
+    private static void run(String baseUrl, String label, String path, String accept, int clients,
+        Duration duration, long pauseMillis) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Accept", accept)
+            .build();
+        drive(request, clients, Duration.ofSeconds(3), pauseMillis);
+        System.gc();
+
+        Peaks peaks = new Peaks();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reactive-comparison-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(peaks::sample, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        ThreadModeComparison.Result result;
+        try {
+            result = drive(request, clients, duration, pauseMillis);
+        } finally {
+            sampler.shutdownNow();
+        }
+        System.out.printf("%-14s %s  %s%n", label, result, peaks);
+    }
+
+    // closed model: 클라이언트마다 응답을 끝까지 (천천히) 읽으면 바로 다음 요청
+    private static ThreadModeComparison.Result drive(HttpRequest request, int clients, Duration duration,
+        long pauseMillis) throws InterruptedException {
+        ExecutorService executor = VirtualThreads.isSupported()
+            ? VirtualThreads.newExecutor() : Executors.newFixedThreadPool(clients);
+        HttpClient http = HttpClient.newBuilder()
+            .executor(executor)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> perClient = new ArrayList<>();
+        int[] counts = new int[clients];
+
+        ExecutorService clientThreads = VirtualThreads.isSupported()
+            ? VirtualThreads.newExecutor() : Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            long[] latencies = new long[1 << 14];
+            perClient.add(latencies);
+            int client = c;
+            clientThreads.submit(() -> {
+                byte[] buffer = new byte[CHUNK];
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                        try (InputStream body = response.body()) {
+                            while (body.read(buffer) != -1) {
+                                Thread.sleep(pauseMillis);
+                            }
+                        }
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (counts[client] < latencies.length) {
+                        latencies[counts[client]++] = System.nanoTime() - start;
+                    }
+                }
+                return null;
+            });
+        }
+        clientThreads.shutdown();
+        clientThreads.awaitTermination(duration.getSeconds() + 120, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(perClient.get(c), 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new ThreadModeComparison.Result(total, errors.get(), duration, all);
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    // 측정 중 heap 사용량, 요청을 처리 중인 tomcat worker 수의 최대값
+    private static class Peaks {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private volatile long heapBytes;
+        private volatile int busyWorkers;
+        private volatile int workers;
+
+        void sample() {
+            heapBytes = Math.max(heapBytes, memory.getHeapMemoryUsage().getUsed());
+            int total = 0;
+            int busy = 0;
+            for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+                if (info == null || !info.getThreadName().startsWith("http-nio-")
+                    || !info.getThreadName().contains("-exec-")) {
+                    continue;
+                }
+                total++;
+                // 일이 없는 worker 는 작업 큐(AQS condition)에서 대기한다, 그 외는 처리 중으로 본다 (대략)
+                if (info.getThreadState() == Thread.State.RUNNABLE || info.getLockName() == null
+                    || !info.getLockName().contains("AbstractQueuedSynchronizer")) {
+                    busy++;
+                }
+            }
+            workers = Math.max(workers, total);
+            busyWorkers = Math.max(busyWorkers, busy);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("heap peak %6.1f MB  tomcat workers peak %3d (busy %3d)",
+                heapBytes / (1024.0 * 1024.0), workers, busyWorkers);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.dsl.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.dto.MemberTeamDto;
+import com.example.dsl.repository.JdbcMemberSearchQuery;
+import com.example.dsl.repository.MemberSearchQuery;
+
+/**
+ * /v1/members 검색을 JPA(querydsl) 경로와 JDBC 경로로 같은 조건, 같은 DB 에 실행해서 호출당 시간을 비교한다.
+ * 차이가 hibernate 가 이 경로에 더하는 비용 (JPQL -> SQL 번역, EntityManager 생성, 결과 변환)
+ * HTTP, JSON 은 빼고 repository 호출만 잰다.
+ *
+ * ./gradlew searchPathBenchmark -PloadArgs="20000 5 10"
+ *   args: 시딩 건수, 워밍업 시간(초), 조건별 측정 시간(초)
+ */
+public class SearchPathBenchmark {
+
+    public static void main(String[] args) {
+        int seedCount = intArg(args, 0, 20000);
+        long warmupNanos = intArg(args, 1, 5) * 1_000_000_000L;
+        long measureNanos = intArg(args, 2, 10) * 1_000_000_000L;
+
+        try (ConfigurableApplicationContext app = EmbeddedApp.start("searchpath", seedCount)) {
+            MemberSearchQuery jpa = app.getBean(MemberSearchQuery.class);
+            MemberSearchQuery jdbc = new JdbcMemberSearchQuery(app.getBean(JdbcTemplate.class));
+
+            System.out.printf("seed=%d warmup=%ds measure=%ds per path%n",
+                seedCount, warmupNanos / 1_000_000_000L, measureNanos / 1_000_000_000L);
+            System.out.printf("%-24s %8s %14s %14s %10s%n", "condition", "rows", "jpa us/op", "jdbc us/op", "jpa/jdbc");
+            for (Map.Entry<String, MemberSearchCondition> entry : conditions().entrySet()) {
+                MemberSearchCondition condition = entry.getValue();
+                List<MemberTeamDto> expected = jdbc.search(condition);
+                if (jpa.search(condition).size() != expected.size()) {
+                    throw new IllegalStateException("JPA and JDBC results differ for " + entry.getKey());
+                }
+
+                run(jpa, condition, warmupNanos);
+                run(jdbc, condition, warmupNanos);
+                double jpaMicros = run(jpa, condition, measureNanos);
+                double jdbcMicros = run(jdbc, condition, measureNanos);
+                System.out.printf("%-24s %8d %14.1f %14.1f %9.2fx%n",
+                    entry.getKey(), expected.size(), jpaMicros, jdbcMicros, jpaMicros / jdbcMicros);
+            }
+        }
+    }
+
+    private static Map<String, MemberSearchCondition> conditions() {
+        Map<String, MemberSearchCondition> conditions = new LinkedHashMap<>();
+
+        MemberSearchCondition username = new MemberSearchCondition();
+        username.setUsername("member42");
+        conditions.put("username", username);
+
+        MemberSearchCondition narrow = new MemberSearchCondition();
+        narrow.setTeamName("teamB");
+        narrow.setAgeGoe(100);
+        narrow.setAgeLoe(120);
+        conditions.put("teamName+age (narrow)", narrow);
+
+        MemberSearchCondition wide = new MemberSearchCondition();
+        wide.setAgeGoe(0);
+        wide.setAgeLoe(2000);
+        conditions.put("age (2000 rows)", wide);
+        return conditions;
+    }
+
+    // 호출당 평균 마이크로초
+    private static double run(MemberSearchQuery query, MemberSearchCondition condition, long durationNanos) {
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        long calls = 0;
+        long rows = 0;
+        long now;
+        do {
+            rows += query.search(condition).size();
+            calls++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        // 결과를 버리지 않았다는 표시 (JIT 가 호출을 지우지 못하도록)
+        if (rows < 0) {
+            System.out.println(rows);
+        }
+        return (now - start) / 1_000.0 / calls;
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.dsl.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.dsl.config.VirtualThreads;
+
+/**
+ * platform thread 모드와 virtual thread 모드(app.threads.virtual)에 같은 부하를 주고 비교한다.
+ * 동시 클라이언트 수가 tomcat max-threads 를 넘으면 platform 모드는 스레드 풀에서 대기하고,
+ * virtual 모드는 커넥션 풀(hikari)에서만 대기한다.
+ *
+ * virtual thread 가 있는 Java 21 로 실행한다 (build.gradle 의 virtualThreadComparison 태스크)
+ *
+ * ./gradlew virtualThreadComparison -PloadArgs="400 20 50"
+ *   args: 동시 클라이언트 수, 모드별 측정 시간(초), tomcat max-threads
+ */
+public class ThreadModeComparison {
+
+    public static void main(String[] args) throws Exception {
+        int clients = intArg(args, 0, 400);
+        Duration duration = Duration.ofSeconds(intArg(args, 1, 20));
+        int tomcatThreads = intArg(args, 2, 50);
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("Virtual thread mode needs Java 21, running on " + System.getProperty("java.version"));
+        }
+
+        System.out.printf("clients=%d duration=%ds tomcat.max-threads=%d%n", clients, duration.getSeconds(), tomcatThreads);
+        for (boolean virtual : new boolean[] {false, true}) {
+            try (ConfigurableApplicationContext app = start(virtual, tomcatThreads)) {
+                int port = Integer.parseInt(app.getEnvironment().getProperty("local.server.port"));
+                drive(port, clients, Duration.ofSeconds(3));
+                Result result = drive(port, clients, duration);
+                System.out.printf("%-16s %s%n", virtual ? "virtual" : "platform", result);
+            }
+        }
+    }
+
+    // 스레드 모드만 비교하도록 admission(429) 은 끈다
+    static ConfigurableApplicationContext start(boolean virtual, int tomcatThreads) {
+        return EmbeddedApp.start(virtual ? "virtual" : "platform", 5000,
+            "--app.threads.virtual=" + virtual,
+            "--app.admission.enabled=false",
+            "--server.tomcat.max-threads=" + tomcatThreads);
+    }
+
+    // closed model: 클라이언트마다 응답을 받으면 바로 다음 요청
+    static Result drive(int port, int clients, Duration duration) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+            .executor(VirtualThreads.newExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> perClient = new ArrayList<>();
+        int[] counts = new int[clients];
+
+        ExecutorService executor = VirtualThreads.newExecutor();
+        for (int c = 0; c < clients; c++) {
+            long[] latencies = new long[1 << 16];
+            perClient.add(latencies);
+            int client = c;
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    int page = ThreadLocalRandom.current().nextInt(50);
+                    HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/v3/members?size=20&page=" + page)).build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (counts[client] < latencies.length) {
+                        latencies[counts[client]++] = System.nanoTime() - start;
+                    }
+                }
+                return null;
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.getSeconds() + 60, TimeUnit.SECONDS);
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(perClient.get(c), 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(total, errors.get(), duration, all);
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    static class Result {
+        final int requests;
+        final long errors;
+        final Duration duration;
+        final long[] sortedNanos;
+
+        Result(int requests, long errors, Duration duration, long[] sortedNanos) {
+            this.requests = requests;
+            this.errors = errors;
+            this.duration = duration;
+            this.sortedNanos = sortedNanos;
+        }
+
+        double percentileMillis(double p) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(p / 100 * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%8.1f req/s  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms  errors %d",
+                requests / (double) duration.getSeconds(),
+                percentileMillis(50), percentileMillis(99), percentileMillis(100), errors);
+        }
+    }
+}
@@ -1,28 +1,53 @@
 package com.example.dsl;
 
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.dsl.entity.Member;
 import com.example.dsl.entity.Team;
+import com.example.dsl.startup.StartupReadiness;
+import com.example.dsl.startup.StartupTask;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Profile("local")
 @Component
 @RequiredArgsConstructor
 public class InitMember {
 
+    public enum SeedMode {
+        BLOCKING, ASYNC, SKIP
+    }
+
     private final InitMemberService initMemberService;
+    private final StartupReadiness startupReadiness;
+
+    @Value("${app.startup.seed-mode:BLOCKING}")
+    private SeedMode seedMode;
+
+    private StartupTask seedTask;
 
     @PostConstruct
     public void init() {
-        initMemberService.init();
+        if (seedMode == SeedMode.SKIP) {
+            return;
+        }
+        // ASYNC 여도 여기서 등록해둬야 데이터가 다 들어가기 전에 ready 가 되지 않는다
+        seedTask = startupReadiness.begin("seed");
+        if (seedMode == SeedMode.BLOCKING) {
+            runSeed();
+        }
         // 이부분을 왜 바로 안하냐?
         // 스프링 라이프사이클 상, Transactional과 PostConstruct가 겹칠 수가 없다.
         // @PostConstruct는 해당 빈 자체만 생성되었다고 가정하고 호출됨.
@@ -35,22 +60,59 @@ public class InitMember {
 
     }
 
+    // 기동은 막지 않고, 다 뜬 다음 백그라운드로 넣는다
+    @EventListener(ApplicationReadyEvent.class)
+    public void initAsync() {
+        if (seedMode == SeedMode.ASYNC) {
+            CompletableFuture.runAsync(this::runSeed);
+        }
+    }
+
+    private void runSeed() {
+        try {
+            initMemberService.init();
+        } catch (RuntimeException e) {
+            log.error("Member seeding failed", e);
+        } finally {
+            seedTask.end();
+        }
+    }
+
     @Component
     static class InitMemberService {
 
+        private static final int BATCH_SIZE = 500;
+
         @PersistenceContext
         EntityManager em;
 
+        @Value("${app.startup.seed-count:100}")
+        int seedCount;
+
         @Transactional
         public void init() {
+            // 스키마를 다시 만들지 않는 모드(fast)에서는 이미 데이터가 있을 수 있다
+            Long teams = em.createQuery("select count(t) from Team t", Long.class).getSingleResult();
+            if (teams > 0) {
+                return;
+            }
+
             Team teamA = new Team("teamA");
             Team teamB = new Team("teamB");
             em.persist(teamA);
             em.persist(teamB);
 
-            for (int i = 0; i < 100; i++) {
+            for (int i = 0; i < seedCount; i++) {
                 Team selectedTeam = i % 2 == 0 ? teamA : teamB;
                 em.persist(new Member("member" + i, i, selectedTeam));
+                // 건수가 많을 때 영속성 컨텍스트가 계속 커지지 않도록
+                // 준영속이 된 team 은 FK 값으로만 쓰이고, members 컬렉션(mappedBy)은 메모리에서만 비운다
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    em.flush();
+                    em.clear();
+                    teamA.getMembers().clear();
+                    teamB.getMembers().clear();
+                }
             }
         }
     }
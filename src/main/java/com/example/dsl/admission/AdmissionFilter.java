@@ -0,0 +1,90 @@
+package com.example.dsl.admission;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.dsl.deadline.Deadline;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * member API 를 비용 등급별 bulkhead 로 나눠서, 비싼 요청이 몰려도 싼 요청(/members/{id})은 계속 처리되게 한다.
+ * 한도가 차면 대기열에서 잠깐(등급별 max-queue-wait, 요청 deadline 이 더 짧으면 그만큼) 기다리고,
+ * 그래도 자리가 없거나 대기열이 꽉 차면 바로 429.
+ *
+ * metrics: admission.requests{class, outcome=admitted|shed}, admission.limit / inflight / queued{class}
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final AdmissionProperties properties;
+    private final CostClassifier classifier;
+    private final MeterRegistry meterRegistry;
+    private final Map<CostClass, Bulkhead> bulkheads = new EnumMap<>(CostClass.class);
+
+    public AdmissionFilter(AdmissionProperties properties, CostClassifier classifier, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.classifier = classifier;
+        this.meterRegistry = meterRegistry;
+        for (CostClass costClass : CostClass.values()) {
+            Bulkhead bulkhead = new Bulkhead(properties.limitsFor(costClass), properties.getLatencyTolerance());
+            bulkheads.put(costClass, bulkhead);
+            String tag = costClass.name().toLowerCase();
+            Gauge.builder("admission.limit", bulkhead, Bulkhead::getLimit).tag("class", tag).register(meterRegistry);
+            Gauge.builder("admission.inflight", bulkhead, Bulkhead::getInFlight).tag("class", tag).register(meterRegistry);
+            Gauge.builder("admission.queued", bulkhead, Bulkhead::getWaiting).tag("class", tag).register(meterRegistry);
+        }
+    }
+
+    public Bulkhead bulkhead(CostClass costClass) {
+        return bulkheads.get(costClass);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        CostClass costClass = properties.isEnabled() ? classifier.classify(request) : null;
+        if (costClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(costClass);
+        String tag = costClass.name().toLowerCase();
+        if (!bulkhead.tryAcquire(maxWaitNanos(costClass))) {
+            meterRegistry.counter("admission.requests", "class", tag, "outcome", "shed").increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.getWriter().write("Too many " + tag + " requests");
+            return;
+        }
+        meterRegistry.counter("admission.requests", "class", tag, "outcome", "admitted").increment();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release(System.nanoTime() - start);
+        }
+    }
+
+    private long maxWaitNanos(CostClass costClass) {
+        long wait = properties.limitsFor(costClass).getMaxQueueWait().toNanos();
+        // DeadlineFilter 가 먼저 돈다
+        Deadline deadline = Deadline.current();
+        return deadline == null ? wait : Math.min(wait, deadline.remainingNanos());
+    }
+}
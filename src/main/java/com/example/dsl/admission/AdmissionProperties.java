@@ -0,0 +1,47 @@
+package com.example.dsl.admission;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * app.admission.*
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("app.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+    // 이보다 큰 페이지는 EXPENSIVE
+    private int largePageSize = 100;
+    // /members?ids= 가 이 개수 이하면 CHEAP
+    private int cheapLookupIds = 100;
+    // 최근 지연시간이 최소 지연시간의 몇 배까지 괜찮은지 (넘으면 한도를 줄인다)
+    private double latencyTolerance = 2.0;
+    // 등급별 한도 (없는 등급은 CostClass 의 기본값)
+    private Map<CostClass, Limits> classes = new EnumMap<>(CostClass.class);
+
+    public Limits limitsFor(CostClass costClass) {
+        Limits limits = classes.get(costClass);
+        return limits != null ? limits : costClass.defaults();
+    }
+
+    @Getter
+    @Setter
+    public static class Limits {
+        private int initialLimit = 16;
+        private int minLimit = 1;
+        private int maxLimit = 64;
+        // 한도가 찼을 때 기다릴 수 있는 요청 수, 넘으면 바로 429
+        private int queueCapacity = 50;
+        private Duration maxQueueWait = Duration.ofMillis(200);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.dsl.admission;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 비용 등급 하나의 동시 실행 한도 + 대기열
+ *
+ * 한도는 지연시간으로 조정한다 (TCP Vegas / gradient 방식)
+ * - WINDOW 건마다 평균 지연시간을 재서, 지금까지의 최소 지연시간(부하가 없을 때)과 비교
+ * - 평균이 최소의 tolerance 배 안이면 한도를 sqrt(limit) 만큼 늘리고, 넘으면 비율만큼 줄인다 (최대 절반)
+ * - 데이터가 늘어 쿼리 자체가 느려지는 것을 따라가도록 최소 지연시간은 가끔 다시 잰다
+ */
+public class Bulkhead {
+
+    private static final int WINDOW = 20;
+    private static final int MIN_RTT_RESET_WINDOWS = 50;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final double tolerance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private volatile int limit;
+    private volatile int inFlight;
+    private volatile int waiting;
+
+    private long minRttNanos = Long.MAX_VALUE;
+    private long windowNanos;
+    private int windowSamples;
+    private int windows;
+
+    public Bulkhead(AdmissionProperties.Limits limits, double tolerance) {
+        this.minLimit = Math.max(1, limits.getMinLimit());
+        this.maxLimit = Math.max(minLimit, limits.getMaxLimit());
+        this.limit = Math.min(maxLimit, Math.max(minLimit, limits.getInitialLimit()));
+        this.queueCapacity = limits.getQueueCapacity();
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * 자리가 나면 바로, 없으면 maxWaitNanos 까지 기다린다. 대기열이 꽉 찼으면 기다리지 않고 false
+     */
+    public boolean tryAcquire(long maxWaitNanos) {
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                return true;
+            }
+            if (waiting >= queueCapacity || maxWaitNanos <= 0) {
+                return false;
+            }
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= limit) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            int before = limit;
+            sample(latencyNanos);
+            if (limit > before) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    private void sample(long latencyNanos) {
+        windowNanos += latencyNanos;
+        windowSamples++;
+        if (windowSamples < WINDOW) {
+            return;
+        }
+        long averageNanos = Math.max(1, windowNanos / windowSamples);
+        windowNanos = 0;
+        windowSamples = 0;
+        if (++windows % MIN_RTT_RESET_WINDOWS == 0) {
+            minRttNanos = averageNanos;
+        } else {
+            minRttNanos = Math.min(minRttNanos, averageNanos);
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * minRttNanos / averageNanos));
+        double target = gradient < 1.0 ? limit * gradient : limit + Math.sqrt(limit);
+        int next = (int) Math.round(limit * (1 - SMOOTHING) + target * SMOOTHING);
+        if (next == limit && target != limit) {
+            next += target > limit ? 1 : -1;
+        }
+        limit = Math.min(maxLimit, Math.max(minLimit, next));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.dsl.admission;
+
+import java.time.Duration;
+
+/**
+ * member API 의 비용 등급, 등급마다 동시 실행 한도(bulkhead)가 따로 있다.
+ * 기본값은 app.admission.classes.<등급>.* 으로 바꿀 수 있다.
+ */
+public enum CostClass {
+    // id 하나/몇 개 조회
+    CHEAP(64, 8, 256, 200, Duration.ofMillis(50)),
+    // 조건이 있는 검색, 작은 페이지
+    STANDARD(16, 4, 64, 100, Duration.ofMillis(200)),
+    // 조건 없는 전체 조회, 큰 페이지, 조건 없는 count
+    EXPENSIVE(4, 1, 16, 20, Duration.ofMillis(500));
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final Duration maxQueueWait;
+
+    CostClass(int initialLimit, int minLimit, int maxLimit, int queueCapacity, Duration maxQueueWait) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueCapacity = queueCapacity;
+        this.maxQueueWait = maxQueueWait;
+    }
+
+    AdmissionProperties.Limits defaults() {
+        AdmissionProperties.Limits limits = new AdmissionProperties.Limits();
+        limits.setInitialLimit(initialLimit);
+        limits.setMinLimit(minLimit);
+        limits.setMaxLimit(maxLimit);
+        limits.setQueueCapacity(queueCapacity);
+        limits.setMaxQueueWait(maxQueueWait);
+        return limits;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.dsl.admission;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 요청 -> 비용 등급
+ * - 페이지 크기가 largePageSize 보다 크면 EXPENSIVE
+ * - 조건이 선택적인지: username, teamName 이 있으면 결과가 작다고 본다 (나이 범위만으로는 넓을 수 있음)
+ * - count 가 필요한지: /v2, /v3(count=EXACT), /members, /members_page
+ * member API 가 아니면 null (제한하지 않음), /v4 는 비동기 스트리밍이라 제외
+ */
+@Component
+public class CostClassifier {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final AdmissionProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public CostClassifier(AdmissionProperties properties) {
+        this.properties = properties;
+    }
+
+    public CostClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (pathMatcher.match("/members/*", path) || pathMatcher.match("/members/converter/*", path)) {
+            return CostClass.CHEAP;
+        }
+
+        boolean selective = hasText(request.getParameter("username")) || hasText(request.getParameter("teamName"));
+        boolean largePage = pageSize(request) > properties.getLargePageSize();
+        switch (path) {
+            case "/members":
+                String[] ids = request.getParameterValues("ids");
+                if (ids != null) {
+                    return idCount(ids) <= properties.getCheapLookupIds() ? CostClass.CHEAP : CostClass.STANDARD;
+                }
+                // 조건 없는 count + 페이지
+                return CostClass.EXPENSIVE;
+            case "/members_page":
+                return CostClass.EXPENSIVE;
+            case "/v1/members":
+            case "/v1/members/columns":
+                // 페이징 없이 전부
+                return selective ? CostClass.STANDARD : CostClass.EXPENSIVE;
+            case "/v2/members/slice":
+                return largePage ? CostClass.EXPENSIVE : CostClass.STANDARD;
+            case "/v2/members":
+                return largePage || !selective ? CostClass.EXPENSIVE : CostClass.STANDARD;
+            case "/v3/members":
+                String count = request.getParameter("count");
+                boolean exactCount = count == null || "EXACT".equalsIgnoreCase(count);
+                return largePage || (exactCount && !selective) ? CostClass.EXPENSIVE : CostClass.STANDARD;
+            default:
+                return null;
+        }
+    }
+
+    // ids=1,2&ids=3 처럼 나눠 보내도 컨트롤러는 전부 합쳐서 받으므로 같이 센다
+    private static int idCount(String[] values) {
+        int count = 0;
+        for (String value : values) {
+            for (String id : value.split(",")) {
+                if (hasText(id)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int pageSize(HttpServletRequest request) {
+        String size = request.getParameter("size");
+        if (!hasText(size)) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            return Integer.parseInt(size.trim());
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+}
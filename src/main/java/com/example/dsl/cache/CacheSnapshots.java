@@ -0,0 +1,225 @@
+package com.example.dsl.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.dsl.startup.StartupReadiness;
+import com.example.dsl.startup.StartupTask;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 캐시(SnapshotCache) 내용을 종료할 때와 주기적으로 memory-mapped 파일에 저장하고, 기동할 때 ready 전에 복원한다.
+ *
+ * 스냅샷에는 데이터 버전 표시를 같이 남긴다.
+ * - 스키마 버전이 다르면 버린다: flyway 버전, flyway 를 쓰지 않으면(ddl-auto) 엔티티 매핑
+ * - 데이터 버전(SnapshotCache.dataVersion, DB 에 저장): 같으면 그대로 쓰고, 다르거나 알 수 없으면 복원한 키들만 DB 로 다시 확인한다
+ *   DB 에 있으므로 다른 인스턴스의 변경도 보인다. 엔티티를 거치지 않는 변경(벌크 수정, 직접 SQL)은 못 보므로 캐시의 ttl 까지만 보장한다
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache-snapshot.enabled", havingValue = "true")
+public class CacheSnapshots {
+
+    private static final int MAGIC = 0x43534E50; // "CSNP"
+    private static final int FORMAT_VERSION = 2;
+
+    private final List<SnapshotCache> caches;
+    private final ObjectProvider<Flyway> flyway;
+    private final EntityManagerFactory emf;
+    private final StartupReadiness startupReadiness;
+    private final Path directory;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+
+    public CacheSnapshots(List<SnapshotCache> caches, ObjectProvider<Flyway> flyway, EntityManagerFactory emf,
+        StartupReadiness startupReadiness,
+        @Value("${app.cache-snapshot.directory}") String directory,
+        @Value("${app.cache-snapshot.interval:0s}") Duration interval) {
+        this.caches = caches;
+        this.flyway = flyway;
+        this.emf = emf;
+        this.startupReadiness = startupReadiness;
+        this.directory = Paths.get(directory);
+        this.interval = interval;
+    }
+
+    @PostConstruct
+    public void init() {
+        StartupTask task = startupReadiness.begin("cache-restore");
+        try {
+            restoreAll();
+        } finally {
+            task.end();
+        }
+        if (!interval.isZero()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cache-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::saveAll, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        saveAll();
+    }
+
+    public void saveAll() {
+        for (SnapshotCache cache : caches) {
+            try {
+                save(cache);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to save cache snapshot {}", cache.snapshotName(), e);
+            }
+        }
+    }
+
+    /**
+     * @return 복원한 항목 수 (모든 캐시 합)
+     */
+    public int restoreAll() {
+        int restored = 0;
+        for (SnapshotCache cache : caches) {
+            try {
+                restored += restore(cache);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to restore cache snapshot {}, starting cold", cache.snapshotName(), e);
+            }
+        }
+        return restored;
+    }
+
+    private void save(SnapshotCache cache) throws IOException {
+        // 내용보다 먼저 읽어야 저장하는 동안의 변경도 복원할 때 다시 확인된다
+        String dataVersion = cache.dataVersion();
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            cache.writeSnapshot(out);
+        }
+        byte[] schema = schemaVersion().getBytes(StandardCharsets.UTF_8);
+        // 알 수 없으면 빈 값 -> 복원할 때 항상 다시 확인
+        byte[] data = (dataVersion == null ? "" : dataVersion).getBytes(StandardCharsets.UTF_8);
+        byte[] body = payload.toByteArray();
+        int size = 4 + 4 + 4 + schema.length + 4 + data.length + 8 + 4 + body.length;
+
+        Files.createDirectories(directory);
+        Path file = snapshotPath(cache);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        try (FileChannel channel = FileChannel.open(temp,
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(schema.length).put(schema)
+                .putInt(data.length).put(data)
+                .putLong(System.currentTimeMillis())
+                .putInt(body.length).put(body);
+            buffer.force();
+        }
+        // 쓰다 만 파일을 읽지 않도록 다 쓴 다음 바꿔치기
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private int restore(SnapshotCache cache) throws IOException {
+        Path file = snapshotPath(cache);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            log.info("Discarding cache snapshot {}: unknown format", cache.snapshotName());
+            return 0;
+        }
+        byte[] schema = new byte[buffer.getInt()];
+        buffer.get(schema);
+        if (!schemaVersion().equals(new String(schema, StandardCharsets.UTF_8))) {
+            log.info("Discarding cache snapshot {}: schema version changed", cache.snapshotName());
+            return 0;
+        }
+        byte[] data = new byte[buffer.getInt()];
+        buffer.get(data);
+        long createdAt = buffer.getLong();
+        byte[] body = new byte[buffer.getInt()];
+        buffer.get(body);
+
+        int restored;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            restored = cache.readSnapshot(in);
+        }
+        String dataVersion = cache.dataVersion();
+        boolean stale = data.length == 0 || dataVersion == null
+            || !dataVersion.equals(new String(data, StandardCharsets.UTF_8));
+        if (stale) {
+            cache.revalidate();
+        }
+        log.info("Restored {} entries of cache {} from a snapshot taken {} ms ago{}", restored, cache.snapshotName(),
+            System.currentTimeMillis() - createdAt, stale ? " (revalidated)" : "");
+        return restored;
+    }
+
+    private String schemaVersion() {
+        Flyway migrations = flyway.getIfAvailable();
+        MigrationInfo current = migrations == null ? null : migrations.info().current();
+        if (current == null || current.getVersion() == null) {
+            return mappingVersion();
+        }
+        return "flyway-" + current.getVersion().getVersion();
+    }
+
+    // ddl-auto 로 스키마를 만들면 스키마는 엔티티 매핑을 따라간다 (데이터가 새로 만들어진 것은 데이터 버전이 없어져서 걸러진다)
+    private String mappingVersion() {
+        List<String> attributes = new ArrayList<>();
+        for (EntityType<?> entity : emf.getMetamodel().getEntities()) {
+            for (Attribute<?, ?> attribute : entity.getAttributes()) {
+                attributes.add(entity.getName() + "." + attribute.getName() + ":" + attribute.getJavaType().getName());
+            }
+        }
+        Collections.sort(attributes);
+        return "mapping-" + Integer.toHexString(attributes.hashCode());
+    }
+
+    private Path snapshotPath(SnapshotCache cache) {
+        return directory.resolve(cache.snapshotName() + ".snapshot");
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.dsl.cache;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * data_version 테이블 읽기/쓰기 (DataVersion)
+ * changed 는 데이터를 바꾸는 트랜잭션 안에서 불러야 같이 커밋된다.
+ */
+@Component
+public class DataVersions {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DataVersions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return 현재 token, 아직 바뀐 적이 없으면 null
+     */
+    public String current(String name) {
+        List<String> tokens = jdbcTemplate.queryForList(
+            "select token from data_version where name = ?", String.class, name);
+        return tokens.isEmpty() ? null : tokens.get(0);
+    }
+
+    public void changed(String name) {
+        String token = UUID.randomUUID().toString();
+        if (update(name, token) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("insert into data_version (name, token) values (?, ?)", name, token);
+        } catch (DuplicateKeyException e) {
+            // 다른 트랜잭션이 먼저 넣었다
+            update(name, token);
+        }
+    }
+
+    private int update(String name, String token) {
+        return jdbcTemplate.update("update data_version set token = ? where name = ?", token, name);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.dsl.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 재시작해도 차가운 상태로 시작하지 않도록 내용을 파일로 남길 수 있는 캐시 (CacheSnapshots 가 저장/복원)
+ */
+public interface SnapshotCache {
+
+    /**
+     * 스냅샷 파일 이름, 캐시마다 달라야 한다
+     */
+    String snapshotName();
+
+    void writeSnapshot(DataOutput out) throws IOException;
+
+    /**
+     * @return 복원한 항목 수
+     */
+    int readSnapshot(DataInput in) throws IOException;
+
+    /**
+     * DB 에 저장된 이 캐시 데이터의 버전 (DataVersions), 스냅샷을 만들 때와 같으면 그 사이 변경이 없었다
+     * @return 알 수 없으면 null (복원할 때 항상 다시 확인)
+     */
+    String dataVersion();
+
+    /**
+     * 복원한 값이 틀릴 수 있을 때 (데이터 버전이 다르거나 알 수 없을 때) 복원한 키들을 DB 로 다시 확인한다
+     */
+    void revalidate();
+}
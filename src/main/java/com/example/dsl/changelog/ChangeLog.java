@@ -0,0 +1,413 @@
+package com.example.dsl.changelog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 커밋된 Member/Team 변경을 순서대로 쌓는 append-only 로그 (memory-mapped 세그먼트 파일)
+ *
+ * - 세그먼트: 크기가 segmentSize 로 고정된 파일 <세그먼트 번호>.log, offset = 세그먼트 번호 * segmentSize + 파일 안 위치
+ * - 레코드: [int 길이][int crc32][본문], 길이를 마지막에 써서 쓰다 만 레코드는 보이지 않는다
+ *   세그먼트에 자리가 모자라면 길이 자리에 ROLL(-1) 을 쓰고 다음 세그먼트로 넘어간다
+ * - 재시작하면 마지막 세그먼트를 crc 가 맞는 데까지 읽어 이어 쓴다 -> 구독자는 저장해 둔 offset 부터 다시 읽으면 된다
+ * - retainSegments 개를 넘는 오래된 세그먼트는 지운다
+ * - 쓰기는 mmap 이라 프로세스가 죽어도 남는다. 서버가 꺼지는 것까지 버티려면 fsync (레코드마다 force)
+ *
+ * 세그먼트 크기를 바꾸려면 디렉토리를 비워야 한다.
+ */
+@Slf4j
+public class ChangeLog implements Closeable {
+
+    private static final String SUFFIX = ".log";
+    private static final int HEADER = 8;
+    private static final int ROLL = -1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int retainSegments;
+    private final boolean fsync;
+
+    // 세그먼트 번호 -> 매핑, 지워진 세그먼트를 읽고 있던 reader 는 가지고 있던 매핑으로 계속 읽는다
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final Object appendLock = new Object();
+    private volatile long startOffset;
+    private volatile long endOffset;
+
+    public ChangeLog(Path directory, int segmentSize, int retainSegments, boolean fsync) throws IOException {
+        if (segmentSize <= HEADER) {
+            throw new IllegalArgumentException("segmentSize too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.retainSegments = Math.max(1, retainSegments);
+        this.fsync = fsync;
+
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            segments.put(segmentIndexOf(file), map(file));
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, map(segmentPath(0)));
+        }
+        this.startOffset = segments.firstKey() * segmentSize;
+        this.endOffset = recoverEnd(segments.lastKey());
+        log.info("Change log {} opened, offsets [{}, {})", directory, startOffset, endOffset);
+    }
+
+    public long append(ChangeOperation operation, String entity, long entityId, String detail) {
+        byte[] body = encode(operation, entity, entityId, System.currentTimeMillis(), detail);
+        int recordSize = HEADER + body.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Change record larger than a segment: " + recordSize);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        synchronized (appendLock) {
+            long offset = endOffset;
+            long segmentIndex = offset / segmentSize;
+            int position = (int) (offset % segmentSize);
+            MappedByteBuffer segment = segments.get(segmentIndex);
+            if (position + recordSize > segmentSize) {
+                if (position + 4 <= segmentSize) {
+                    segment.putInt(position, ROLL);
+                }
+                segmentIndex++;
+                offset = segmentIndex * segmentSize;
+                position = 0;
+                segment = null;
+            }
+            if (segment == null) {
+                // 앞 세그먼트가 딱 맞게 찼을 때도 여기로 온다
+                segment = roll(segmentIndex);
+            }
+            write(segment, position + HEADER, body);
+            segment.putInt(position + 4, (int) crc.getValue());
+            segment.putInt(position, body.length);
+            if (fsync) {
+                // Java 11 에는 구간 force 가 없다
+                segment.force();
+            }
+            endOffset = offset + recordSize;
+            appendLock.notifyAll();
+            return offset;
+        }
+    }
+
+    /**
+     * 아직 남아 있는 가장 오래된 offset
+     */
+    public long startOffset() {
+        return startOffset;
+    }
+
+    /**
+     * 다음 레코드가 쓰일 offset (지금 구독을 시작하면 이후 변경만 받는다)
+     */
+    public long endOffset() {
+        return endOffset;
+    }
+
+    /**
+     * fromOffset 은 레코드 경계여야 한다 (append 가 돌려준 값, ChangeRecord.nextOffset, startOffset, endOffset)
+     */
+    public Reader reader(long fromOffset) {
+        return new Reader(fromOffset);
+    }
+
+    /**
+     * fromOffset 부터 끝까지 읽고, 이후 쌓이는 변경을 계속 전달하는 스레드를 띄운다.
+     * consumer 가 실패하면 같은 레코드를 간격을 늘려 가며 다시 넘기고, 계속 실패하면 그 레코드에서 멈춘다.
+     * (Subscription.failure 로 확인하고 position 부터 다시 구독)
+     */
+    public Subscription subscribe(long fromOffset, Consumer<ChangeRecord> consumer) {
+        Subscription subscription = new Subscription(reader(fromOffset), consumer);
+        Thread thread = new Thread(subscription, "change-log-subscriber");
+        thread.setDaemon(true);
+        subscription.thread = thread;
+        thread.start();
+        return subscription;
+    }
+
+    @Override
+    public void close() {
+        segments.values().forEach(MappedByteBuffer::force);
+    }
+
+    private void awaitAppend(long offset, long timeoutMillis) throws InterruptedException {
+        synchronized (appendLock) {
+            if (endOffset <= offset) {
+                appendLock.wait(timeoutMillis);
+            }
+        }
+    }
+
+    private MappedByteBuffer roll(long segmentIndex) {
+        MappedByteBuffer segment;
+        try {
+            segment = map(segmentPath(segmentIndex));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.put(segmentIndex, segment);
+        while (segments.size() > retainSegments) {
+            Map.Entry<Long, MappedByteBuffer> oldest = segments.pollFirstEntry();
+            startOffset = segments.firstKey() * segmentSize;
+            try {
+                Files.deleteIfExists(segmentPath(oldest.getKey()));
+            } catch (IOException e) {
+                log.warn("Failed to delete change log segment {}", oldest.getKey(), e);
+            }
+        }
+        return segment;
+    }
+
+    private long recoverEnd(long segmentIndex) {
+        MappedByteBuffer segment = segments.get(segmentIndex);
+        int position = 0;
+        while (position + HEADER <= segmentSize) {
+            int length = segment.getInt(position);
+            if (length <= 0 || position + HEADER + length > segmentSize) {
+                break;
+            }
+            byte[] body = new byte[length];
+            read(segment, position + HEADER, body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != segment.getInt(position + 4)) {
+                log.warn("Change log segment {} has a torn record at {}, truncating", segmentIndex, position);
+                break;
+            }
+            position += HEADER + length;
+        }
+        return segmentIndex * segmentSize + position;
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size != 0 && size != segmentSize) {
+                throw new IllegalStateException("Change log segment " + file + " has size " + size
+                    + ", expected " + segmentSize);
+            }
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path segmentPath(long segmentIndex) {
+        return directory.resolve(String.format("%020d%s", segmentIndex, SUFFIX));
+    }
+
+    // 절대 위치 bulk get/put 은 Java 13 부터라 위치만 따로 가진 view 로
+    private static void write(ByteBuffer segment, int index, byte[] source) {
+        ByteBuffer view = segment.duplicate();
+        view.position(index);
+        view.put(source);
+    }
+
+    private static void read(ByteBuffer segment, int index, byte[] target) {
+        ByteBuffer view = segment.duplicate();
+        view.position(index);
+        view.get(target);
+    }
+
+    private static long segmentIndexOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private static byte[] encode(ChangeOperation operation, String entity, long entityId, long committedAt, String detail) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(operation.ordinal());
+            out.writeLong(entityId);
+            out.writeLong(committedAt);
+            out.writeUTF(entity);
+            out.writeUTF(detail == null ? "" : detail);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ChangeRecord decode(long offset, byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            ChangeOperation operation = ChangeOperation.values()[in.readByte()];
+            long entityId = in.readLong();
+            long committedAt = in.readLong();
+            String entity = in.readUTF();
+            String detail = in.readUTF();
+            return new ChangeRecord(offset, offset + HEADER + body.length, operation, entity, entityId, committedAt, detail);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public final class Reader {
+
+        private long position;
+
+        private Reader(long position) {
+            this.position = position;
+        }
+
+        /**
+         * 다음에 읽을 offset (구독자는 이 값을 저장해 두었다가 재시작 후 이어서 읽는다)
+         */
+        public long position() {
+            return position;
+        }
+
+        public List<ChangeRecord> poll(int maxRecords) {
+            long end = endOffset;
+            List<ChangeRecord> records = new ArrayList<>();
+            while (position < end && records.size() < maxRecords) {
+                long segmentIndex = position / segmentSize;
+                int offsetInSegment = (int) (position % segmentSize);
+                MappedByteBuffer segment = segments.get(segmentIndex);
+                if (segment == null) {
+                    if (position >= startOffset) {
+                        break;
+                    }
+                    // 보관 기간이 지나 지워졌다 -> 남아 있는 데부터
+                    log.warn("Change log offset {} is no longer retained, skipping to {}", position, startOffset);
+                    position = startOffset;
+                    continue;
+                }
+                int length = offsetInSegment + HEADER <= segmentSize ? segment.getInt(offsetInSegment) : ROLL;
+                if (length == ROLL) {
+                    position = (segmentIndex + 1) * segmentSize;
+                    continue;
+                }
+                byte[] body = new byte[length];
+                read(segment, offsetInSegment + HEADER, body);
+                ChangeRecord record = decode(position, body);
+                records.add(record);
+                position = record.getNextOffset();
+            }
+            return records;
+        }
+    }
+
+    public final class Subscription implements Runnable, Closeable {
+
+        private static final int BATCH = 256;
+        private static final long IDLE_WAIT_MILLIS = 100;
+        private static final int MAX_ATTEMPTS = 5;
+        private static final long INITIAL_RETRY_MILLIS = 100;
+
+        private final Reader reader;
+        private final Consumer<ChangeRecord> consumer;
+        private volatile boolean closed;
+        private volatile long position;
+        private volatile RuntimeException failure;
+        private Thread thread;
+
+        private Subscription(Reader reader, Consumer<ChangeRecord> consumer) {
+            this.reader = reader;
+            this.consumer = consumer;
+            this.position = reader.position();
+        }
+
+        /**
+         * 전달을 마친 다음 offset
+         */
+        public long position() {
+            return position;
+        }
+
+        /**
+         * consumer 가 계속 실패해서 멈췄으면 마지막 예외, 아니면 null
+         */
+        public RuntimeException failure() {
+            return failure;
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                List<ChangeRecord> records = reader.poll(BATCH);
+                if (records.isEmpty()) {
+                    try {
+                        awaitAppend(reader.position(), IDLE_WAIT_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    continue;
+                }
+                for (ChangeRecord record : records) {
+                    if (!deliver(record)) {
+                        return;
+                    }
+                    position = record.getNextOffset();
+                }
+            }
+        }
+
+        // 건너뛰면 그 변경은 다시 오지 않으므로 position 을 넘기지 않는다
+        private boolean deliver(ChangeRecord record) {
+            long backoffMillis = INITIAL_RETRY_MILLIS;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    consumer.accept(record);
+                    return true;
+                } catch (RuntimeException e) {
+                    if (attempt == MAX_ATTEMPTS) {
+                        log.error("Change log subscriber failed {} times on {}, stopping at offset {}",
+                            attempt, record, position, e);
+                        failure = e;
+                        closed = true;
+                        return false;
+                    }
+                    log.warn("Change log subscriber failed on {} ({}/{}), retrying in {} ms",
+                        record, attempt, MAX_ATTEMPTS, backoffMillis, e);
+                }
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                if (closed) {
+                    return false;
+                }
+                backoffMillis *= 2;
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.dsl.changelog;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+@ConditionalOnProperty(name = "app.change-log.enabled", havingValue = "true")
+public class ChangeLogConfig {
+
+    @Bean(destroyMethod = "close")
+    public ChangeLog changeLog(@Value("${app.change-log.directory}") String directory,
+        @Value("${app.change-log.segment-size:64MB}") DataSize segmentSize,
+        @Value("${app.change-log.retain-segments:16}") int retainSegments,
+        @Value("${app.change-log.fsync:false}") boolean fsync) throws IOException {
+        return new ChangeLog(Paths.get(directory), Math.toIntExact(segmentSize.toBytes()), retainSegments, fsync);
+    }
+
+    @Bean
+    public EntityChangeCapture entityChangeCapture(ChangeLog changeLog, EntityManagerFactory emf) {
+        EntityChangeCapture capture = new EntityChangeCapture(changeLog);
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, capture);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, capture);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, capture);
+        return capture;
+    }
+
+    @Bean
+    public static ModifyingQueryCapture modifyingQueryCapture(ObjectProvider<ChangeLog> changeLog) {
+        return new ModifyingQueryCapture(changeLog);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.dsl.changelog;
+
+public enum ChangeOperation {
+    INSERT, UPDATE, DELETE,
+    // update ... where ... 같은 집합 단위 변경 (entityId 없음)
+    BULK_UPDATE
+}
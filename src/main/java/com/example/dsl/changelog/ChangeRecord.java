@@ -0,0 +1,26 @@
+package com.example.dsl.changelog;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 커밋된 변경 하나
+ * offset 은 로그 안의 위치, 이어서 읽을 때는 nextOffset 부터 읽으면 된다.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ChangeRecord {
+
+    public static final long NO_ID = -1;
+
+    private final long offset;
+    private final long nextOffset;
+    private final ChangeOperation operation;
+    private final String entity;
+    private final long entityId;
+    private final long committedAt;
+    // UPDATE: 바뀐 속성 이름들, BULK_UPDATE: 실행한 메서드와 영향받은 행 수
+    private final String detail;
+}
@@ -0,0 +1,73 @@
+package com.example.dsl.changelog;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import com.example.dsl.entity.Member;
+import com.example.dsl.entity.Team;
+
+/**
+ * hibernate 가 커밋에 성공한 Member/Team 의 insert/update/delete 를 change log 에 남긴다.
+ * 롤백된 변경은 onPostXxxCommitFailed 로 오므로 남지 않는다.
+ */
+public class EntityChangeCapture
+    implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Set<Class<?>> CAPTURED = Set.of(Member.class, Team.class);
+
+    private final transient ChangeLog changeLog;
+
+    public EntityChangeCapture(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        append(ChangeOperation.INSERT, event.getPersister(), event.getId(), "");
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        String[] names = event.getPersister().getPropertyNames();
+        String changed = dirty == null ? "" : Arrays.stream(dirty)
+            .mapToObj(index -> names[index])
+            .collect(Collectors.joining(","));
+        append(ChangeOperation.UPDATE, event.getPersister(), event.getId(), changed);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        append(ChangeOperation.DELETE, event.getPersister(), event.getId(), "");
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return CAPTURED.contains(persister.getMappedClass());
+    }
+
+    private void append(ChangeOperation operation, EntityPersister persister, Object id, String detail) {
+        changeLog.append(operation, persister.getMappedClass().getSimpleName(), ((Number) id).longValue(), detail);
+    }
+}
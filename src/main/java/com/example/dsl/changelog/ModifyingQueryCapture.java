@@ -0,0 +1,68 @@
+package com.example.dsl.changelog;
+
+import java.util.Arrays;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * bulkAgePlus 같은 @Modifying 쿼리는 영속성 컨텍스트를 거치지 않아 hibernate 이벤트가 없다.
+ * repository 프록시에 interceptor 를 붙여서 커밋 후에 BULK_UPDATE 레코드를 남긴다.
+ */
+public class ModifyingQueryCapture implements BeanPostProcessor {
+
+    private final ObjectProvider<ChangeLog> changeLog;
+
+    public ModifyingQueryCapture(ObjectProvider<ChangeLog> changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // spring data repository 는 frozen 이 아닌 프록시라 advice 를 더 붙일 수 있다
+        // 쿼리 메서드는 마지막 interceptor 가 proceed 하지 않고 실행하므로 맨 앞(트랜잭션 바깥)에 붙인다
+        if (bean instanceof Repository && bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, new Interceptor());
+        }
+        return bean;
+    }
+
+    private class Interceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            if (!AnnotatedElementUtils.hasAnnotation(invocation.getMethod(), Modifying.class)) {
+                return result;
+            }
+            String entity = AbstractRepositoryMetadata.getMetadata(invocation.getMethod().getDeclaringClass())
+                .getDomainType().getSimpleName();
+            String detail = invocation.getMethod().getName() + Arrays.toString(invocation.getArguments())
+                + " rows=" + result;
+            Runnable append = () -> changeLog.getObject()
+                .append(ChangeOperation.BULK_UPDATE, entity, ChangeRecord.NO_ID, detail);
+
+            // 바깥 트랜잭션 안이면 그 커밋 후, 아니면 repository 의 트랜잭션은 이미 커밋되었다
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        append.run();
+                    }
+                });
+            } else {
+                append.run();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.dsl.config;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import com.example.dsl.dto.MemberColumns;
+
+/**
+ * Accept: application/x-member-columns 이면 MemberColumns 를 바이너리로 내려준다. (형식은 MemberColumns.writeTo)
+ * 스프링 부트는 HttpMessageConverter 빈을 기본 컨버터 앞에 등록한다.
+ */
+@Component
+public class MemberColumnsHttpMessageConverter extends AbstractHttpMessageConverter<MemberColumns> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-member-columns";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public MemberColumnsHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return MemberColumns.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected MemberColumns readInternal(Class<? extends MemberColumns> clazz, HttpInputMessage inputMessage)
+        throws IOException {
+        return MemberColumns.readFrom(new DataInputStream(inputMessage.getBody()));
+    }
+
+    @Override
+    protected void writeInternal(MemberColumns columns, HttpOutputMessage outputMessage) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputMessage.getBody(), BUFFER_SIZE));
+        columns.writeTo(out);
+        out.flush();
+    }
+}
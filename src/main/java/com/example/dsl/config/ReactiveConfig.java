@@ -0,0 +1,55 @@
+package com.example.dsl.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+
+/**
+ * reactive 검색용 non-blocking 커넥션 풀 (r2dbc-h2)
+ * app.reactive.url 이 없으면 spring.datasource.url 과 같은 DB 를 바라본다.
+ * 커넥션은 처음 구독될 때 만들어진다.
+ */
+@Configuration
+public class ReactiveConfig {
+
+    private static final String JDBC_PREFIX = "jdbc:h2:";
+    // spring boot 가 띄우는 embedded H2 (테스트)
+    private static final String EMBEDDED_URL = "mem:testdb;DB_CLOSE_DELAY=-1";
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionPool reactiveConnectionPool(
+        @Value("${app.reactive.url:}") String url,
+        @Value("${spring.datasource.url:}") String jdbcUrl,
+        @Value("${spring.datasource.username:sa}") String username,
+        @Value("${spring.datasource.password:}") String password,
+        @Value("${app.reactive.pool.max-size:10}") int maxSize) {
+
+        H2ConnectionConfiguration configuration = H2ConnectionConfiguration.builder()
+            .url(resolveUrl(url, jdbcUrl))
+            .username(username)
+            .password(password)
+            .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(new H2ConnectionFactory(configuration))
+            .maxSize(maxSize)
+            .maxIdleTime(Duration.ofMinutes(10))
+            .build());
+    }
+
+    private static String resolveUrl(String url, String jdbcUrl) {
+        if (StringUtils.hasText(url)) {
+            return url;
+        }
+        if (StringUtils.hasText(jdbcUrl) && jdbcUrl.startsWith(JDBC_PREFIX)) {
+            return jdbcUrl.substring(JDBC_PREFIX.length());
+        }
+        return EMBEDDED_URL;
+    }
+}
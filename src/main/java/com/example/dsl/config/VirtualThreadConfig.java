@@ -0,0 +1,58 @@
+package com.example.dsl.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * app.threads.virtual=true 일 때 요청을 virtual thread 에서 처리한다.
+ * 컨트롤러 -> 리포지토리 -> JDBC 가 모두 요청 스레드에서 돌기 때문에 리포지토리 계층도 virtual thread 에서 실행됨.
+ * tomcat 스레드 풀(max-threads) 대신 커넥션 풀(hikari maximum-pool-size)만 동시성의 한계가 된다.
+ * Java 21 런타임에서만 켜지고, 그보다 낮으면 경고를 남기고 platform thread 그대로 둔다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+@Conditional(VirtualThreadConfig.OnVirtualThreadRuntime.class)
+public class VirtualThreadConfig {
+
+    @Bean
+    TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newExecutor());
+    }
+
+    // MVC 비동기 처리(Callable 등)와 @Async 도 virtual thread 로
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(VirtualThreads.newExecutor());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(meterRegistry);
+    }
+
+    @Slf4j
+    static class OnVirtualThreadRuntime implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            if (VirtualThreads.isSupported()) {
+                return true;
+            }
+            log.warn("app.threads.virtual=true is ignored: Java {} has no virtual threads, requests stay on platform threads",
+                System.getProperty("java.version"));
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.dsl.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * virtual thread 가 carrier thread 에 고정(pinning)되는 것을 JFR 이벤트로 감지한다.
+ * synchronized 블록 안에서 블로킹 I/O 를 하면(JDBC 드라이버, 커넥션 풀 등) carrier 를 놓지 못해서
+ * virtual thread 를 써도 동시성이 carrier 수(코어 수)로 묶인다.
+ * 감지되면 virtual.thread.pinned 카운터를 올리고 어느 코드에서 고정됐는지 로그를 남긴다.
+ *
+ * 이벤트 스트리밍(RecordingStream)은 Java 14 부터라, POLL_INTERVAL 마다 녹화를 새로 시작하고
+ * 이전 녹화를 파일로 떨궈서 읽는다. 떨군 녹화는 닫으므로 읽는 이벤트는 모두 처음 보는 것이다.
+ * (파일 안의 이벤트는 스레드 버퍼 단위로 쓰여서 시작 시각 순이 아니다)
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Duration THRESHOLD = Duration.ofMillis(20);
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(10);
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Counter pinned;
+    private ScheduledExecutorService poller;
+    private Recording recording;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinned = Counter.builder("virtual.thread.pinned")
+            .description("Virtual threads pinned to their carrier longer than " + THRESHOLD.toMillis() + "ms")
+            .register(meterRegistry);
+    }
+
+    public void start() {
+        recording = newRecording();
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "virtual-thread-pinning-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, POLL_INTERVAL.toMillis(), POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private synchronized void poll() {
+        Recording previous = recording;
+        recording = newRecording();
+        try {
+            previous.stop();
+            Path file = Files.createTempFile("virtual-thread-pinning", ".jfr");
+            try {
+                previous.dump(file);
+                for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                    onPinned(event);
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read virtual thread pinning events", e);
+        } finally {
+            previous.close();
+        }
+    }
+
+    private static Recording newRecording() {
+        Recording recording = new Recording();
+        recording.enable(PINNED_EVENT).withThreshold(THRESHOLD).withStackTrace();
+        recording.start();
+        return recording;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), topFrames(event));
+    }
+
+    private static String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "(no stack trace)";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+            .limit(LOGGED_FRAMES)
+            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber())
+            .collect(Collectors.joining(" <- "));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.dsl.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * virtual thread 는 Java 21 런타임에만 있다.
+ * 빌드는 spring boot 2.2 가 읽을 수 있는 Java 11 클래스 파일이라 API 를 직접 부르지 못하고, 실행 중인 JDK 에서 찾는다.
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_EXECUTOR = findNewExecutor();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor()
+     */
+    public static ExecutorService newExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new IllegalStateException("Virtual threads need Java 21, running on " + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle findNewExecutor() {
+        try {
+            return MethodHandles.publicLookup()
+                .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
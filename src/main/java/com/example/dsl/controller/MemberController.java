@@ -4,32 +4,48 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.dsl.config.MemberColumnsHttpMessageConverter;
+import com.example.dsl.dto.MemberColumns;
 import com.example.dsl.dto.MemberSearchCondition;
 import com.example.dsl.dto.MemberTeamDto;
 import com.example.dsl.entity.Member;
-import com.example.dsl.repository.MemberJpaRepository;
+import com.example.dsl.entity.Team;
+import com.example.dsl.repository.MemberReactiveRepository;
 import com.example.dsl.repository.MemberRepository;
+import com.example.dsl.repository.MemberSearchQuery;
+import com.example.dsl.repository.support.CountMode;
+import com.example.dsl.repository.support.IdLookup;
 
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
-    private final MemberJpaRepository memberJpaRepository;
+    private static final int MAX_LOOKUP_IDS = 1000;
+
     private final MemberRepository memberRepository;
+    private final MemberReactiveRepository memberReactiveRepository;
+    private final MemberSearchQuery memberSearchQuery;
 
+    // jdbc-search 프로파일이면 JPA 를 거치지 않고 JDBC 로 바로 조회
     @GetMapping("/v1/members")
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return memberJpaRepository.searchByWhereParameter(condition);
+        return memberSearchQuery.search(condition);
     }
 
     @GetMapping("/v2/members")
@@ -37,9 +53,38 @@ public class MemberController {
         return memberRepository.searchPageSimple(condition, pageable);
     }
 
+    // 분석용: /v1/members 와 같은 조건의 결과를 열 단위 배열로
+    // Accept: application/x-member-columns 이면 바이너리 (MemberColumns.readFrom 으로 읽는다), 아니면 JSON
+    @GetMapping(value = "/v1/members/columns",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MemberColumnsHttpMessageConverter.MEDIA_TYPE_VALUE})
+    public MemberColumns searchMemberColumns(MemberSearchCondition condition) {
+        return memberRepository.searchColumns(condition);
+    }
+
+    // count query 없이 다음 페이지 여부만 (무한 스크롤)
+    @GetMapping("/v2/members/slice")
+    public Slice<MemberTeamDto> searchMemberSlice(MemberSearchCondition condition, Pageable pageable) {
+        return memberRepository.searchSlice(condition, pageable);
+    }
+
+    // /v3/members?count=CAPPED -> totalDisplay 가 "10000+" 로 내려감
+    // /v3/members?page=5000&deferred=true -> id 만 먼저 페이징하는 2단계 조회 (깊은 페이지용)
     @GetMapping("/v3/members")
-    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageComplex(condition, pageable);
+    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable,
+        @RequestParam(value = "count", defaultValue = "EXACT") CountMode countMode,
+        @RequestParam(value = "deferred", defaultValue = "false") boolean deferred) {
+        if (deferred) {
+            return memberRepository.searchPageDeferred(condition, pageable, countMode);
+        }
+        return memberRepository.searchPageComplex(condition, pageable, countMode);
+    }
+
+    // /v1/members 와 같은 조건/결과를 non-blocking 으로 스트리밍 (한 줄에 하나씩)
+    // 클라이언트가 느리면 그만큼만 읽고, 연결이 끊기면 DB 쿼리도 취소된다
+    @GetMapping(value = "/v4/members",
+        produces = {MediaType.APPLICATION_STREAM_JSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<MemberTeamDto> searchMemberV4(MemberSearchCondition condition) {
+        return memberReactiveRepository.search(condition);
     }
 
     // 도메인 클래스 컨버터 사용 전
@@ -52,11 +97,25 @@ public class MemberController {
     // 도메인 클래스 컨버터 사용 후
     // spring boot 를 사용하면 기본으로 됨ㅋ
     // 권장하진 않음 (실무에서 이런 단순한 경우가 별로 없음)
-    @GetMapping("/members/{id}")
+    // 위와 같은 URL 이면 Ambiguous mapping 으로 애플리케이션이 뜨지 않아서 경로를 분리함
+    @GetMapping("/members/converter/{id}")
     public String findMember(@PathVariable("id") Member member) {
         return member.getUsername();
     }
 
+    // 여러 id 를 한 번에: /members?ids=3,1,2 -> found 는 요청 순서대로, 없는 id 는 missing
+    @GetMapping(value = "/members", params = "ids")
+    public IdLookup<MemberTeamDto> findMembers(@RequestParam("ids") List<Long> ids) {
+        if (ids.size() > MAX_LOOKUP_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_LOOKUP_IDS + " ids per request");
+        }
+        return memberRepository.lookupByIds(ids).map(member -> {
+            Team team = member.getTeam();
+            return new MemberTeamDto(member.getId(), member.getUsername(), member.getAge(),
+                team == null ? null : team.getId(), team == null ? null : team.getName());
+        });
+    }
+
     //  페이징과 정렬
     // /members?page=0&size=3&sort=id,desc&sort=username,desc
     @GetMapping("/members")
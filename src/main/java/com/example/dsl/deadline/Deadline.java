@@ -0,0 +1,79 @@
+package com.example.dsl.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나가 쓸 수 있는 시간
+ * DeadlineFilter 가 요청 스레드에 묶어두고, 그 아래(repository, JDBC)에서 Deadline.current() 로 남은 시간을 본다.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+    // 남은 시간이 이보다 적으면 count 같은 부가 작업은 생략한다
+    private final long reserveNanos;
+    // 남은 시간 때문에 결과를 줄인 횟수 (count 생략 등), 요청 스레드에서만 쓴다
+    private int degradations;
+
+    private Deadline(long expiresAtNanos, long reserveNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.reserveNanos = reserveNanos;
+    }
+
+    public static Deadline after(Duration timeout, Duration reserve) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), reserve.toNanos());
+    }
+
+    /**
+     * 지금 스레드의 deadline, 요청 밖(배치, 스케줄러)이면 null
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public boolean isNearlySpent() {
+        return remainingNanos() < reserveNanos;
+    }
+
+    /**
+     * 남은 시간이 모자라서 결과 일부를 생략했다고 표시한다.
+     * 이 요청의 시간 때문에 줄어든 결과는 다른 요청과 나누면 안 된다 (SingleFlight)
+     */
+    public void markDegraded() {
+        degradations++;
+    }
+
+    public int degradations() {
+        return degradations;
+    }
+
+    /**
+     * Statement.setQueryTimeout 용 (초 단위라 올림, 초 이하는 StatementWatchdog 가 cancel 한다)
+     */
+    public int queryTimeoutSeconds() {
+        long remaining = remainingNanos();
+        return (int) Math.max(1, (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
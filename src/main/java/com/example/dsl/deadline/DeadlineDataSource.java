@@ -0,0 +1,90 @@
+package com.example.dsl.deadline;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledFuture;
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 요청에 deadline 이 있으면 JDBC statement 에
+ * - 남은 시간으로 query timeout 을 걸고
+ * - 실행하는 동안 StatementWatchdog 에 등록해서 deadline 이 지나면 cancel 한다
+ * - 이미 지났으면 실행하지 않는다 (SQLTimeoutException -> QueryTimeoutException)
+ * JPA(hibernate), JdbcTemplate, querydsl 모두 여기를 거친다. deadline 이 없으면(요청 밖) 그대로 통과
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    private static final String QUERY_CANCELED = "57014";
+
+    private final StatementWatchdog watchdog;
+
+    public DeadlineDataSource(DataSource targetDataSource, StatementWatchdog watchdog) {
+        super(targetDataSource);
+        this.watchdog = watchdog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                Deadline deadline = Deadline.current();
+                if (deadline != null && result instanceof Statement
+                    && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    return watch((Statement) result, method.getReturnType(), deadline);
+                }
+                return result;
+            });
+    }
+
+    private Object watch(Statement statement, Class<?> type, Deadline deadline) throws SQLException {
+        if (deadline.isExpired()) {
+            statement.close();
+            throw deadlineExceeded();
+        }
+        statement.setQueryTimeout(deadline.queryTimeoutSeconds());
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> {
+                if (!method.getName().startsWith("execute")) {
+                    return invoke(statement, method, args);
+                }
+                if (deadline.isExpired()) {
+                    throw deadlineExceeded();
+                }
+                ScheduledFuture<?> cancel = watchdog.watch(statement, deadline);
+                try {
+                    return invoke(statement, method, args);
+                } finally {
+                    cancel.cancel(false);
+                }
+            });
+    }
+
+    private static SQLTimeoutException deadlineExceeded() {
+        return new SQLTimeoutException("Request deadline exceeded", QUERY_CANCELED);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.dsl.deadline;
+
+import javax.sql.DataSource;
+
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import com.github.gavlyukovskiy.boot.jdbc.decorator.DataSourceDecorator;
+
+/**
+ * p6spy 와 같은 방식(datasource-decorator)으로 DataSource 빈을 DeadlineDataSource 로 감싼다.
+ */
+@Component
+public class DeadlineDataSourceDecorator implements DataSourceDecorator, Ordered {
+
+    private final StatementWatchdog watchdog;
+
+    public DeadlineDataSourceDecorator(StatementWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    @Override
+    public DataSource decorate(String beanName, DataSource dataSource) {
+        return new DeadlineDataSource(dataSource, watchdog);
+    }
+
+    // p6spy 와의 순서는 상관없다 (cancel 은 감싸기 전에 받은 statement 에 한다)
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.dsl.deadline;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * deadline 때문에 취소/거부된 쿼리는 500 이 아니라 504
+ */
+@RestControllerAdvice
+public class DeadlineExceptionHandler {
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<String> queryTimeout(QueryTimeoutException e) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Request deadline exceeded");
+    }
+}
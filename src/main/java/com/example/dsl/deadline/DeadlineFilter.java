@@ -0,0 +1,79 @@
+package com.example.dsl.deadline;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 요청마다 deadline 을 정해서 요청 스레드에 묶는다.
+ * 헤더(X-Request-Deadline-Ms)로 받은 값과 endpoint 기본값 중 짧은 쪽
+ * 대기열 시간도 deadline 에 포함되도록 AdmissionFilter 보다 먼저
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final DeadlineProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Counter exceeded;
+
+    public DeadlineFilter(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.exceeded = meterRegistry.counter("request.deadline.exceeded");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Deadline deadline = Deadline.after(budget(request), properties.getReserve());
+        Deadline.bind(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.clear();
+            if (deadline.isExpired()) {
+                exceeded.increment();
+            }
+        }
+    }
+
+    private Duration budget(HttpServletRequest request) {
+        Duration budget = properties.getDefaultTimeout();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, Duration> endpoint : properties.getEndpoints().entrySet()) {
+            if (pathMatcher.match(endpoint.getKey(), path)) {
+                budget = endpoint.getValue();
+                break;
+            }
+        }
+        String requested = request.getHeader(properties.getHeader());
+        if (requested != null) {
+            try {
+                Duration client = Duration.ofMillis(Math.max(0, Long.parseLong(requested.trim())));
+                if (client.compareTo(budget) < 0) {
+                    budget = client;
+                }
+            } catch (NumberFormatException ignored) {
+                // 잘못된 헤더는 무시하고 기본값
+            }
+        }
+        return budget;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.dsl.deadline;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * app.deadline.* (endpoint 별 기본값이 map 이라 @Value 대신 바인딩)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("app.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+    // 클라이언트가 기다릴 수 있는 남은 시간(ms), endpoint 기본값보다 길게 줄 수는 없다
+    private String header = "X-Request-Deadline-Ms";
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+    private Duration reserve = Duration.ofMillis(200);
+    // ant 패턴 -> 기본 시간, 먼저 맞는 것
+    private Map<String, Duration> endpoints = new LinkedHashMap<>();
+}
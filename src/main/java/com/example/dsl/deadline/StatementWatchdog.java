@@ -0,0 +1,53 @@
+package com.example.dsl.deadline;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 실행 중인 statement 를 deadline 에 cancel 한다.
+ * setQueryTimeout 은 초 단위이고 드라이버마다 동작이 달라서, 남은 시간에 맞춰 직접 취소한다.
+ */
+@Slf4j
+@Component
+public class StatementWatchdog {
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Counter cancelled;
+
+    public StatementWatchdog(MeterRegistry meterRegistry) {
+        this.cancelled = meterRegistry.counter("request.deadline.cancelled");
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "statement-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 제때 끝난 statement 의 예약은 바로 지운다
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    public ScheduledFuture<?> watch(Statement statement, Deadline deadline) {
+        return scheduler.schedule(() -> {
+            try {
+                statement.cancel();
+                cancelled.increment();
+            } catch (SQLException e) {
+                log.debug("Failed to cancel statement past its deadline", e);
+            }
+        }, Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.dsl.dto;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.Getter;
+
+/**
+ * 검색 결과를 열 단위 primitive 배열로 담는다. (분석용)
+ * row 마다 MemberTeamDto 객체, Long, 팀 이름 String 을 만들지 않는다.
+ * 팀은 사전(teamIds, teamNames)으로 한 번씩만 담고, row 에는 사전 위치(teamIndexes, 팀이 없으면 -1)만 둔다.
+ *
+ * 배열은 복사하지 않고 그대로 내주므로 받은 쪽에서 수정하면 안 된다.
+ */
+@Getter
+public class MemberColumns {
+
+    public static final int NO_TEAM = -1;
+
+    private static final int MAGIC = 0x4D434F4C; // "MCOL"
+    private static final int VERSION = 2;
+    // 읽을 때 size 만큼 한 번에 잡지 않고 이만큼부터 늘린다
+    private static final int INITIAL_READ_CAPACITY = 1024;
+
+    private final int size;
+    private final long[] memberIds;
+    private final String[] usernames;
+    private final int[] ages;
+    private final int[] teamIndexes;
+    private final long[] teamIds;
+    private final String[] teamNames;
+
+    private MemberColumns(int size, long[] memberIds, String[] usernames, int[] ages, int[] teamIndexes,
+        long[] teamIds, String[] teamNames) {
+        this.size = size;
+        this.memberIds = memberIds;
+        this.usernames = usernames;
+        this.ages = ages;
+        this.teamIndexes = teamIndexes;
+        this.teamIds = teamIds;
+        this.teamNames = teamNames;
+    }
+
+    public String teamNameAt(int row) {
+        int index = teamIndexes[row];
+        return index == NO_TEAM ? null : teamNames[index];
+    }
+
+    /**
+     * 바이너리 형식 (big endian)
+     * magic, version, size, memberIds[size], ages[size], teamIndexes[size], usernames[size],
+     * 사전 크기, (teamId, teamName) * 사전 크기
+     * 문자열은 null 여부(boolean) 다음에 null 이 아니면 UTF
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(memberIds[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeInt(ages[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeInt(teamIndexes[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            writeNullableUTF(out, usernames[i]);
+        }
+        out.writeInt(teamIds.length);
+        for (int i = 0; i < teamIds.length; i++) {
+            out.writeLong(teamIds[i]);
+            writeNullableUTF(out, teamNames[i]);
+        }
+    }
+
+    public static MemberColumns readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a member columns payload");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported member columns version " + version);
+        }
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid member columns size " + size);
+        }
+        // size 는 믿을 수 없는 값이므로 실제로 읽은 만큼만 늘린다 (첫 열을 다 읽으면 나머지 열도 그만큼 있다고 본다)
+        long[] memberIds = new long[Math.min(size, INITIAL_READ_CAPACITY)];
+        for (int i = 0; i < size; i++) {
+            if (i == memberIds.length) {
+                memberIds = Arrays.copyOf(memberIds, (int) Math.min(size, 2L * i));
+            }
+            memberIds[i] = in.readLong();
+        }
+        int[] ages = new int[size];
+        for (int i = 0; i < size; i++) {
+            ages[i] = in.readInt();
+        }
+        int[] teamIndexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            teamIndexes[i] = in.readInt();
+        }
+        String[] usernames = new String[size];
+        for (int i = 0; i < size; i++) {
+            usernames[i] = readNullableUTF(in);
+        }
+        // 사전은 row 보다 클 수 없다
+        int teams = in.readInt();
+        if (teams < 0 || teams > size) {
+            throw new IOException("Invalid member columns team dictionary size " + teams);
+        }
+        long[] teamIds = new long[teams];
+        String[] teamNames = new String[teams];
+        for (int i = 0; i < teams; i++) {
+            teamIds[i] = in.readLong();
+            teamNames[i] = readNullableUTF(in);
+        }
+        for (int index : teamIndexes) {
+            if (index != NO_TEAM && (index < 0 || index >= teams)) {
+                throw new IOException("Invalid member columns team index " + index);
+            }
+        }
+        return new MemberColumns(size, memberIds, usernames, ages, teamIndexes, teamIds, teamNames);
+    }
+
+    private static void writeNullableUTF(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public static class Builder {
+
+        private int size;
+        private long[] memberIds;
+        private String[] usernames;
+        private int[] ages;
+        private int[] teamIndexes;
+        // 팀 id -> 사전 위치 (처음 나온 순서)
+        private final Map<Long, Integer> dictionary = new LinkedHashMap<>();
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            memberIds = new long[capacity];
+            usernames = new String[capacity];
+            ages = new int[capacity];
+            teamIndexes = new int[capacity];
+        }
+
+        public Builder add(long memberId, String username, int age, Long teamId) {
+            if (size == memberIds.length) {
+                int capacity = size * 2;
+                memberIds = Arrays.copyOf(memberIds, capacity);
+                usernames = Arrays.copyOf(usernames, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                teamIndexes = Arrays.copyOf(teamIndexes, capacity);
+            }
+            memberIds[size] = memberId;
+            usernames[size] = username;
+            ages[size] = age;
+            teamIndexes[size] = teamId == null ? NO_TEAM : dictionary.computeIfAbsent(teamId, id -> dictionary.size());
+            size++;
+            return this;
+        }
+
+        /**
+         * 사전에 들어갈 팀 id (중복 없이, 처음 나온 순서)
+         */
+        public Set<Long> teamIds() {
+            return dictionary.keySet();
+        }
+
+        /**
+         * @param teamNamesById 팀 id -> 이름 (teamIds() 로 조회한 결과)
+         */
+        public MemberColumns build(Map<Long, String> teamNamesById) {
+            long[] teamIds = new long[dictionary.size()];
+            String[] teamNames = new String[dictionary.size()];
+            dictionary.forEach((teamId, index) -> {
+                teamIds[index] = teamId;
+                teamNames[index] = teamNamesById.get(teamId);
+            });
+            return new MemberColumns(size, Arrays.copyOf(memberIds, size), Arrays.copyOf(usernames, size),
+                Arrays.copyOf(ages, size), Arrays.copyOf(teamIndexes, size), teamIds, teamNames);
+        }
+    }
+}
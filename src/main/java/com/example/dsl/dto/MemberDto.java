@@ -1,5 +1,7 @@
 package com.example.dsl.dto;
 
+import com.example.dsl.projection.RowProjection;
+
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -10,6 +12,7 @@ public class MemberDto {
     private String username;
     private int age;
 
+    @RowProjection
     public MemberDto(String username, int age) {
         this.username = username;
         this.age = age;
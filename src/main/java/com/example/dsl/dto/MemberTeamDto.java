@@ -1,5 +1,6 @@
 package com.example.dsl.dto;
 
+import com.example.dsl.projection.RowProjection;
 import com.querydsl.core.annotations.QueryProjection;
 
 import lombok.Data;
@@ -13,7 +14,9 @@ public class MemberTeamDto {
     private Long teamId;
     private String teamName;
 
+    // QMemberTeamDto(ConstructorExpression) 와 MemberTeamDtoProjection(생성자 직접 호출) 둘 다 생성됨
     @QueryProjection
+    @RowProjection
     public MemberTeamDto(Long memberId, String username, int age, Long teamId, String teamName) {
         this.memberId = memberId;
         this.username = username;
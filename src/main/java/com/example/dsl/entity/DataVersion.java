@@ -0,0 +1,25 @@
+package com.example.dsl.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 데이터 묶음(name)이 바뀔 때마다 새로 만드는 token (DataVersions)
+ * DB 에 있으므로 다른 인스턴스의 변경도 보이고, 숫자가 아니므로 스키마를 새로 만들어도 같은 값이 다시 나오지 않는다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DataVersion {
+
+    public static final String TEAM = "team";
+
+    @Id
+    private String name;
+
+    private String token;
+}
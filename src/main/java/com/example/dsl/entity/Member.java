@@ -2,12 +2,17 @@ package com.example.dsl.entity;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+
+import com.example.dsl.writebehind.MemberWriteBehindListener;
+
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,6 +20,7 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@EntityListeners(MemberWriteBehindListener.class)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -24,6 +30,9 @@ public class Member
     extends BaseEntity
 {
 
+    // build.gradle 의 hibernate enhance 가 켜져 있으면 association management 도 같이 켜진다
+    private static final boolean ENHANCED = SelfDirtinessTracker.class.isAssignableFrom(Member.class);
+
     @Id
     @GeneratedValue
     @Column(name = "member_id")
@@ -55,6 +64,10 @@ public class Member
 
     private void changeTeam(Team team) {
         this.team = team;
-        team.getMembers().add(this);
+        // enhance 되어 있으면 위의 대입에서 이미 team.members 에 추가된다
+        // 아니면 직접 추가 (새로 만든 member 라 들어 있을 수 없으므로 contains 로 지연 컬렉션을 읽지 않는다)
+        if (!ENHANCED) {
+            team.getMembers().add(this);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.dsl.entity;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreRemove;
+import javax.persistence.PreUpdate;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.dsl.cache.DataVersions;
+
+/**
+ * 스프링 부트는 hibernate 에 SpringBeanContainer 를 넘겨주기 때문에 entity listener 도 주입을 받을 수 있다.
+ * repository 를 직접 주입하면 EntityManagerFactory 와 순환 참조가 생기므로 이벤트로만 알린다.
+ * (DataVersions 는 JdbcTemplate 만 쓰므로 괜찮다, 같은 트랜잭션에서 data_version 을 바꾼다)
+ */
+public class TeamChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final DataVersions dataVersions;
+
+    public TeamChangeListener(ApplicationEventPublisher eventPublisher, DataVersions dataVersions) {
+        this.eventPublisher = eventPublisher;
+        this.dataVersions = dataVersions;
+    }
+
+    @PrePersist
+    @PreUpdate
+    @PreRemove
+    public void onChange(Team team) {
+        dataVersions.changed(DataVersion.TEAM);
+        eventPublisher.publishEvent(new TeamChangedEvent(team.getId()));
+    }
+}
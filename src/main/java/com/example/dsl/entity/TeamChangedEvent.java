@@ -0,0 +1,16 @@
+package com.example.dsl.entity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Team 이 추가/변경/삭제 되었을 때 발행된다. (팀 이름 -> id 캐시 무효화용)
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class TeamChangedEvent {
+
+    private final Long teamId;
+}
@@ -0,0 +1,96 @@
+package com.example.dsl.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.dto.MemberTeamDto;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 엔티티, 영속성 컨텍스트, JPQL 번역 없이 SQL 을 바로 실행하고 ResultSet 을 dto 로 바로 옮긴다.
+ * 결과는 JpaMemberSearchQuery(searchByWhereParameter) 와 같다.
+ *
+ * 조건 조합(4개 -> 16가지)마다 SQL 문자열을 미리 만들어 두고 같은 문자열만 쓴다.
+ * -> DB/드라이버의 prepared statement, 실행 계획 캐시가 항상 맞는다. (H2 는 세션별 QUERY_CACHE_SIZE)
+ */
+@Repository
+@Profile("jdbc-search")
+public class JdbcMemberSearchQuery implements MemberSearchQuery {
+
+    private static final String SELECT = "select m.member_id, m.username, m.age, t.team_id, t.name"
+        + " from member m left outer join team t on m.team_id = t.team_id";
+    private static final String[] PREDICATES = {
+        "m.username = ?",
+        "t.name = ?",
+        "m.age >= ?",
+        "m.age <= ?"
+    };
+    private static final String[] SQL = new String[1 << PREDICATES.length];
+
+    static {
+        for (int mask = 0; mask < SQL.length; mask++) {
+            StringBuilder sql = new StringBuilder(SELECT);
+            String keyword = " where ";
+            for (int i = 0; i < PREDICATES.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    sql.append(keyword).append(PREDICATES[i]);
+                    keyword = " and ";
+                }
+            }
+            SQL[mask] = sql.toString();
+        }
+    }
+
+    private static final RowMapper<MemberTeamDto> ROW_MAPPER = (rs, rowNum) -> new MemberTeamDto(
+        rs.getLong(1),
+        rs.getString(2),
+        rs.getInt(3),
+        rs.getObject(4, Long.class),
+        rs.getString(5));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcMemberSearchQuery(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        int mask = 0;
+        List<Object> args = new ArrayList<>(PREDICATES.length);
+        if (hasText(condition.getUsername())) {
+            mask |= 1;
+            args.add(condition.getUsername());
+        }
+        if (hasText(condition.getTeamName())) {
+            mask |= 1 << 1;
+            args.add(condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            mask |= 1 << 2;
+            args.add(condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            mask |= 1 << 3;
+            args.add(condition.getAgeLoe());
+        }
+
+        return jdbcTemplate.query(SQL[mask], ps -> {
+            for (int i = 0; i < args.size(); i++) {
+                Object arg = args.get(i);
+                if (arg instanceof Integer) {
+                    ps.setInt(i + 1, (Integer) arg);
+                } else {
+                    ps.setString(i + 1, (String) arg);
+                }
+            }
+        }, ROW_MAPPER);
+    }
+}
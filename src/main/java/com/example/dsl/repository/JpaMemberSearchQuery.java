@@ -0,0 +1,24 @@
+package com.example.dsl.repository;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.dto.MemberTeamDto;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@Profile("!jdbc-search")
+@RequiredArgsConstructor
+public class JpaMemberSearchQuery implements MemberSearchQuery {
+
+    private final MemberJpaRepository memberJpaRepository;
+
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return memberJpaRepository.searchByWhereParameter(condition);
+    }
+}
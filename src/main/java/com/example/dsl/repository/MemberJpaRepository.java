@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import com.example.dsl.dto.MemberSearchCondition;
 import com.example.dsl.dto.MemberTeamDto;
-import com.example.dsl.dto.QMemberTeamDto;
+import com.example.dsl.dto.MemberTeamDtoProjection;
 import com.example.dsl.entity.Member;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
@@ -23,6 +23,7 @@ public class MemberJpaRepository {
 
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final TeamIdResolver teamIdResolver;
 
     // 요렇게 받아도 되고 Bean으로 등록해서 di 받아도됨
 //    public MemberJpaRepository(EntityManager em) {
@@ -31,9 +32,10 @@ public class MemberJpaRepository {
 //    }
 
 
-    public MemberJpaRepository(EntityManager em, JPAQueryFactory queryFactory) {
+    public MemberJpaRepository(EntityManager em, JPAQueryFactory queryFactory, TeamIdResolver teamIdResolver) {
         this.em = em;
         this.queryFactory = queryFactory;
+        this.teamIdResolver = teamIdResolver;
     }
 
     public void save(Member member) {
@@ -76,7 +78,7 @@ public class MemberJpaRepository {
             builder.and(member.username.eq(condition.getUsername()));
         }
         if (hasText(condition.getTeamName())) {
-            builder.and(team.name.eq(condition.getTeamName()));
+            builder.and(teamIdResolver.teamNameEq(condition.getTeamName()));
         }
         if (condition.getAgeGoe() != null) {
             builder.and(member.age.goe(condition.getAgeGoe()));
@@ -86,7 +88,7 @@ public class MemberJpaRepository {
         }
 
         return queryFactory
-            .select(new QMemberTeamDto(
+            .select(MemberTeamDtoProjection.of(
                 member.id.as("memberId"),
                 member.username,
                 member.age,
@@ -100,7 +102,7 @@ public class MemberJpaRepository {
 
     public List<MemberTeamDto> searchByWhereParameter(MemberSearchCondition condition) {
         return queryFactory
-            .select(new QMemberTeamDto(
+            .select(MemberTeamDtoProjection.of(
                 member.id.as("memberId"),
                 member.username,
                 member.age,
@@ -110,20 +112,20 @@ public class MemberJpaRepository {
             .leftJoin(member.team, team)
             .where(
                 usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe()))
             .fetch();
     }
 
     // 위의 where 메서드를 재사용해서 타입만 변경함! 굳
+    // 팀 조건이 member.team_id 로 바뀌어서 team join 이 필요 없다
     public List<Member> searchMember(MemberSearchCondition condition) {
         return queryFactory
             .selectFrom(member)
-            .leftJoin(member.team, team)
             .where(
                 usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe())
 //                , ageBetween(condition.getAgeGoe(), condition.getAgeLoe())
@@ -134,9 +136,6 @@ public class MemberJpaRepository {
     private BooleanExpression usernameEq(String username) {
         return hasText(username) ? member.username.eq(username) : null;
     }
-    private BooleanExpression teamNameEq(String teanName) {
-        return hasText(teanName) ? team.name.eq(teanName) : null;
-    }
     private BooleanExpression ageGoe(Integer ageGoe) {
         return ageGoe != null ? member.age.goe(ageGoe) : null;
     }
@@ -0,0 +1,304 @@
+package com.example.dsl.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.dsl.dto.MemberTeamDto;
+import com.example.dsl.repository.support.IdRange;
+
+/**
+ * 전체 member 를 훑는 배치(내보내기, 재색인 등)용
+ * member_id 구간을 나눠서 구간마다 다른 커넥션(읽기 전용), 다른 스레드에서 cursor 로 읽는다.
+ *
+ * 구간은 min/max 와 id 표본의 분위수로 나눠서 id 가 몰려 있어도 구간별 건수가 비슷하다.
+ * 동시에 읽는 구간 수(app.scan.parallelism)는 커넥션 풀 크기보다 작게 둔다.
+ */
+@Component
+public class MemberPartitionScanner {
+
+    private static final String SELECT = "select m.member_id, m.username, m.age, t.team_id, t.name"
+        + " from member m left outer join team t on m.team_id = t.team_id"
+        + " where m.member_id >= ? and m.member_id < ?"
+        + " order by m.member_id";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService executor;
+    private final int fetchSize;
+    private final int sampleSize;
+    private final int queueCapacity;
+
+    public MemberPartitionScanner(DataSource dataSource,
+        @Value("${app.scan.parallelism:4}") int parallelism,
+        @Value("${app.scan.fetch-size:1000}") int fetchSize,
+        @Value("${app.scan.sample-size:10000}") int sampleSize,
+        @Value("${app.scan.queue-capacity:10000}") int queueCapacity) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.fetchSize = fetchSize;
+        this.sampleSize = sampleSize;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "member-scan-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 비슷한 건수의 구간 최대 count 개로 나눈다. (데이터가 적으면 더 적을 수 있다)
+     */
+    public List<IdRange> partitions(int count) {
+        List<Long> bounds = jdbcTemplate.queryForObject(
+            "select min(member_id), max(member_id), count(*) from member",
+            (rs, rowNum) -> rs.getObject(1) == null ? null : List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+        if (bounds == null) {
+            return Collections.emptyList();
+        }
+        long min = bounds.get(0);
+        long max = bounds.get(1);
+        long rows = bounds.get(2);
+        if (count <= 1 || rows <= count) {
+            return Collections.singletonList(new IdRange(min, max + 1));
+        }
+
+        // 전체를 정렬하지 않고 표본의 분위수를 경계로 쓴다
+        double fraction = Math.min(1.0, (double) sampleSize / rows);
+        List<Long> sample = jdbcTemplate.queryForList(
+            "select member_id from member where rand() < ? order by member_id", Long.class, fraction);
+
+        List<IdRange> partitions = new ArrayList<>(count);
+        long from = min;
+        for (int i = 1; i < count && !sample.isEmpty(); i++) {
+            long boundary = sample.get((int) ((long) sample.size() * i / count));
+            if (boundary > from) {
+                partitions.add(new IdRange(from, boundary));
+                from = boundary;
+            }
+        }
+        partitions.add(new IdRange(from, max + 1));
+        return partitions;
+    }
+
+    /**
+     * 구간마다 identity 로 시작해서 accumulator 로 모으고, 구간 순서대로 combiner 로 합친다.
+     */
+    public <A> A reduce(int partitions, Supplier<A> identity, BiConsumer<A, MemberTeamDto> accumulator,
+        BinaryOperator<A> combiner) {
+        Cancellation cancellation = new Cancellation();
+        List<CompletableFuture<A>> futures = new ArrayList<>();
+        for (IdRange range : partitions(partitions)) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                A partial = identity.get();
+                scan(range, cancellation, row -> accumulator.accept(partial, row));
+                return partial;
+            }, executor));
+        }
+
+        A result = identity.get();
+        try {
+            for (CompletableFuture<A> future : futures) {
+                result = combiner.apply(result, future.join());
+            }
+        } catch (CompletionException e) {
+            cancellation.cancel();
+            futures.forEach(future -> future.cancel(true));
+            throw unwrap(e);
+        }
+        return result;
+    }
+
+    /**
+     * 구간은 동시에 읽지만 consumer 는 호출한 스레드에서 member_id 순서대로 받는다.
+     * 구간마다 queueCapacity 건까지만 미리 읽어 두므로 메모리는 (구간 수 x queueCapacity) 를 넘지 않는다.
+     */
+    public void forEachOrdered(int partitions, Consumer<MemberTeamDto> consumer) {
+        Cancellation cancellation = new Cancellation();
+        List<BlockingQueue<Object>> queues = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (IdRange range : partitions(partitions)) {
+            BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            futures.add(CompletableFuture.runAsync(() -> {
+                // 앞 구간에서 이미 실패/중단된 경우 시작하지 않는다
+                if (cancellation.isCancelled()) {
+                    return;
+                }
+                try {
+                    scan(range, cancellation, row -> put(queue, row, cancellation));
+                    put(queue, End.INSTANCE, cancellation);
+                } catch (RuntimeException e) {
+                    if (!cancellation.isCancelled()) {
+                        put(queue, new Failure(e), cancellation);
+                    }
+                }
+            }, executor));
+        }
+
+        try {
+            for (BlockingQueue<Object> queue : queues) {
+                while (true) {
+                    Object item = queue.take();
+                    if (item == End.INSTANCE) {
+                        break;
+                    }
+                    if (item instanceof Failure) {
+                        throw ((Failure) item).cause;
+                    }
+                    consumer.accept((MemberTeamDto) item);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while consuming member scan");
+        } finally {
+            // consumer 가 중간에 실패해도 읽던 스레드와 커넥션이 남지 않도록
+            cancellation.cancel();
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    // 구간 하나를 자기 커넥션으로 cursor 를 열어 한 건씩 읽는다, 중단되면 다음 row 에서 멈춘다
+    private void scan(IdRange range, Cancellation cancellation, Consumer<MemberTeamDto> rowConsumer) {
+        cancellation.check();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            // 드라이버에 따라 autocommit 이 꺼져 있어야 fetch size 만큼씩 가져온다
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(SELECT,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                cancellation.register(statement);
+                try {
+                    statement.setFetchSize(fetchSize);
+                    statement.setLong(1, range.getFromInclusive());
+                    statement.setLong(2, range.getToExclusive());
+                    cancellation.check();
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            cancellation.check();
+                            rowConsumer.accept(new MemberTeamDto(
+                                rs.getLong(1),
+                                rs.getString(2),
+                                rs.getInt(3),
+                                rs.getObject(4, Long.class),
+                                rs.getString(5)));
+                        }
+                    }
+                } finally {
+                    cancellation.unregister(statement);
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            // statement.cancel 로 끊긴 경우
+            cancellation.check();
+            throw new IllegalStateException("Failed to scan members in " + range, e);
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object item, Cancellation cancellation) {
+        try {
+            // 큐에 자리가 있어도 중단됐으면 더 넣지 않는다
+            cancellation.check();
+            while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                cancellation.check();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+
+    /**
+     * 한 번의 reduce/forEachOrdered 에 속한 구간들의 중단 표시
+     * CompletableFuture.cancel(true) 는 실행 중인 작업을 interrupt 하지 않으므로
+     * 읽는 쪽이 row 마다 확인하고, DB 에서 실행 중인 statement 는 직접 cancel 한다.
+     */
+    private static final class Cancellation {
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+
+        boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        void check() {
+            if (cancelled.get()) {
+                throw new CancellationException("Member scan cancelled");
+            }
+        }
+
+        // 등록한 다음 check 하므로 cancel 과 엇갈려도 빠지는 statement 가 없다
+        void register(Statement statement) {
+            running.add(statement);
+        }
+
+        void unregister(Statement statement) {
+            running.remove(statement);
+        }
+
+        void cancel() {
+            if (!cancelled.compareAndSet(false, true)) {
+                return;
+            }
+            for (Statement statement : running) {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    // 이미 끝났거나 닫힌 statement
+                }
+            }
+        }
+    }
+
+    private enum End {
+        INSTANCE
+    }
+
+    private static class Failure {
+        private final RuntimeException cause;
+
+        Failure(RuntimeException cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -6,7 +6,7 @@ import org.springframework.stereotype.Repository;
 
 import com.example.dsl.dto.MemberSearchCondition;
 import com.example.dsl.dto.MemberTeamDto;
-import com.example.dsl.dto.QMemberTeamDto;
+import com.example.dsl.dto.MemberTeamDtoProjection;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 
@@ -30,7 +30,7 @@ public class MemberQueryRepository {
 
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
         return queryFactory
-            .select(new QMemberTeamDto(
+            .select(MemberTeamDtoProjection.of(
                 member.id.as("memberId"),
                 member.username,
                 member.age,
@@ -0,0 +1,85 @@
+package com.example.dsl.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.dto.MemberTeamDto;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * MemberRepositoryImpl.search 와 같은 조건, 같은 결과(MemberTeamDto)를 non-blocking 으로 조회
+ * 구독자가 요청한 만큼만 흘려보내고(backpressure),
+ * 구독이 취소되면(클라이언트 연결 끊김) 커넥션을 닫아서 쿼리도 같이 정리된다.
+ * 조회 전용. 쓰기는 jpa 그대로 사용.
+ */
+@Repository
+public class MemberReactiveRepository {
+
+    private final ConnectionFactory connectionFactory;
+
+    public MemberReactiveRepository(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    public Flux<MemberTeamDto> search(MemberSearchCondition condition) {
+        List<Object> bindings = new ArrayList<>();
+        String sql = searchSql(condition, bindings);
+        return Flux.usingWhen(
+            connectionFactory.create(),
+            connection -> execute(connection, sql, bindings),
+            Connection::close);
+    }
+
+    private Flux<MemberTeamDto> execute(Connection connection, String sql, List<Object> bindings) {
+        Statement statement = connection.createStatement(sql);
+        for (int i = 0; i < bindings.size(); i++) {
+            statement.bind(i, bindings.get(i));
+        }
+        return Flux.from(statement.execute())
+            .flatMap(result -> result.map((row, metadata) -> toDto(row)));
+    }
+
+    private static String searchSql(MemberSearchCondition condition, List<Object> bindings) {
+        StringBuilder sql = new StringBuilder()
+            .append("select m.member_id, m.username, m.age, t.team_id, t.name")
+            .append(" from member m left outer join team t on m.team_id = t.team_id")
+            .append(" where 1 = 1");
+        if (hasText(condition.getUsername())) {
+            bindings.add(condition.getUsername());
+            sql.append(" and m.username = $").append(bindings.size());
+        }
+        if (hasText(condition.getTeamName())) {
+            bindings.add(condition.getTeamName());
+            sql.append(" and t.name = $").append(bindings.size());
+        }
+        if (condition.getAgeGoe() != null) {
+            bindings.add(condition.getAgeGoe());
+            sql.append(" and m.age >= $").append(bindings.size());
+        }
+        if (condition.getAgeLoe() != null) {
+            bindings.add(condition.getAgeLoe());
+            sql.append(" and m.age <= $").append(bindings.size());
+        }
+        return sql.append(" order by m.member_id").toString();
+    }
+
+    private static MemberTeamDto toDto(Row row) {
+        Integer age = row.get("age", Integer.class);
+        return new MemberTeamDto(
+            row.get("member_id", Long.class),
+            row.get("username", String.class),
+            age == null ? 0 : age,
+            row.get("team_id", Long.class),
+            row.get("name", String.class));
+    }
+}
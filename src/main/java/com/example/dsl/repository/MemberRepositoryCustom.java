@@ -4,12 +4,25 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import com.example.dsl.dto.MemberColumns;
 import com.example.dsl.dto.MemberSearchCondition;
 import com.example.dsl.dto.MemberTeamDto;
+import com.example.dsl.entity.Member;
+import com.example.dsl.repository.support.CountMode;
+import com.example.dsl.repository.support.CountStrategy;
+import com.example.dsl.repository.support.IdLookup;
 
 public interface MemberRepositoryCustom {
     List<MemberTeamDto> search(MemberSearchCondition condition);
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+    Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable, CountMode countMode);
+    Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable, CountStrategy countStrategy);
+    Page<MemberTeamDto> searchPageDeferred(MemberSearchCondition condition, Pageable pageable, CountMode countMode);
+    Page<MemberTeamDto> searchPageDeferred(MemberSearchCondition condition, Pageable pageable, CountStrategy countStrategy);
+    Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable);
+    MemberColumns searchColumns(MemberSearchCondition condition);
+    IdLookup<Member> lookupByIds(List<Long> ids);
 }
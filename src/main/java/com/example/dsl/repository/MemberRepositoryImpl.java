@@ -1,17 +1,42 @@
 package com.example.dsl.repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import javax.persistence.EntityManager;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.example.dsl.dto.MemberColumns;
 import com.example.dsl.dto.MemberSearchCondition;
 import com.example.dsl.dto.MemberTeamDto;
-import com.example.dsl.dto.QMemberTeamDto;
+import com.example.dsl.dto.MemberTeamDtoProjection;
 import com.example.dsl.entity.Member;
-import com.querydsl.core.QueryResults;
+import com.example.dsl.repository.support.CountMode;
+import com.example.dsl.repository.support.CountStrategy;
+import com.example.dsl.repository.support.CountedPage;
+import com.example.dsl.repository.support.DeferredJoin;
+import com.example.dsl.repository.support.IdLookup;
+import com.example.dsl.repository.support.SingleFlight;
+import com.example.dsl.repository.support.SortKeyRegistry;
+import com.example.dsl.repository.support.SortKeys;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
@@ -22,16 +47,33 @@ import static org.springframework.util.StringUtils.hasText;
 
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    // lookupByIds 의 in 절 최대 크기
+    // hibernate.query.in_clause_parameter_padding 이 개수를 2의 거듭제곱으로 맞추므로 2의 거듭제곱으로 둔다
+    private static final int MAX_IN_SIZE = 256;
+
+    private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final SortKeys sortKeys;
+    private final SingleFlight singleFlight;
+    private final TeamIdResolver teamIdResolver;
 
-    public MemberRepositoryImpl(JPAQueryFactory queryFactory) {
+    public MemberRepositoryImpl(EntityManager em, JPAQueryFactory queryFactory, SortKeyRegistry sortKeyRegistry,
+        SingleFlight memberSearchSingleFlight, TeamIdResolver teamIdResolver) {
+        this.em = em;
         this.queryFactory = queryFactory;
+        this.sortKeys = sortKeyRegistry.get(Member.class);
+        this.singleFlight = memberSearchSingleFlight;
+        this.teamIdResolver = teamIdResolver;
     }
 
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return coalesce("search", condition, null, null, () -> doSearch(condition), MemberRepositoryImpl::copyOf);
+    }
+
+    private List<MemberTeamDto> doSearch(MemberSearchCondition condition) {
         return queryFactory
-            .select(new QMemberTeamDto(
+            .select(MemberTeamDtoProjection.of(
                 member.id.as("memberId"),
                 member.username,
                 member.age,
@@ -41,7 +83,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
             .leftJoin(member.team, team)
             .where(
                 usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe()))
             .fetch();
@@ -49,8 +91,13 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
-        QueryResults<MemberTeamDto> results = queryFactory
-            .select(new QMemberTeamDto(
+        return coalesce("searchPageSimple", condition, pageable, null,
+            () -> doSearchPageSimple(condition, pageable), MemberRepositoryImpl::copyOf);
+    }
+
+    private Page<MemberTeamDto> doSearchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = queryFactory
+            .select(MemberTeamDtoProjection.of(
                 member.id.as("memberId"),
                 member.username,
                 member.age,
@@ -60,22 +107,51 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
             .leftJoin(member.team, team)
             .where(
                 usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe()))
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
-            .fetchResults();
+            .fetch();
 
-        List<MemberTeamDto> content = results.getResults();
-        long total = results.getTotal();
+        // fetchResults 는 content 쿼리 그대로 count 를 만들어서 team join 까지 따라간다
+        // 조건이 모두 member 컬럼이므로 count 는 member 만 본다
+        long total = queryFactory
+            .selectFrom(member)
+            .where(
+                usernameEq(condition.getUsername()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()))
+            .fetchCount();
         return new PageImpl<>(content, pageable, total);
     }
 
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        return searchPageComplex(condition, pageable, CountMode.EXACT);
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable,
+        CountMode countMode) {
+        // CountMode 마다 strategy 가 새로 만들어지므로 키에는 mode 를 넣는다
+        return coalesce("searchPageComplex", condition, pageable, countMode,
+            () -> doSearchPageComplex(condition, pageable, countMode.strategy(em, Member.class)),
+            MemberRepositoryImpl::copyOf);
+    }
+
+    // 직접 만든 strategy 는 같은 것인지 비교할 수 없어서 합치지 않는다 (합치려면 CountMode 로)
+    @Override
+    public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable,
+        CountStrategy countStrategy) {
+        return doSearchPageComplex(condition, pageable, countStrategy);
+    }
+
+    private Page<MemberTeamDto> doSearchPageComplex(MemberSearchCondition condition, Pageable pageable,
+        CountStrategy countStrategy) {
         List<MemberTeamDto> content = queryFactory
-            .select(new QMemberTeamDto(
+            .select(MemberTeamDtoProjection.of(
                 member.id.as("memberId"),
                 member.username,
                 member.age,
@@ -85,9 +161,10 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
             .leftJoin(member.team, team)
             .where(
                 usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe()))
+            .orderBy(sortKeys.toOrderSpecifiers(pageable.getSort()))
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
             .fetch();
@@ -95,18 +172,6 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         // 위에랑 뭐가 다르냐?
         // 왜 두개의 쿼리로 갔냐?
         // count 쿼리를 최적화 하고 싶으면 이렇게 분리해서 하는게 좋다.
-        long total = queryFactory
-            .selectFrom(member)
-            .leftJoin(member.team, team)
-            .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe()))
-            .offset(pageable.getOffset())
-            .limit(pageable.getPageSize())
-            .fetchCount();
-
 //        return new PageImpl<>(content, pageable, total);
 
         // count query 최적화하기!
@@ -114,25 +179,227 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         //   페이지 시작이면서 컨텐츠 사이즈가 페이지 사이즈보다 작을 때
         //   마지막 페이지 일 때 (offset + 컨텐츠 사이즈를 더해서 전체 사이즈 구함)
         // 100개 있는데 110개 불러보면 count query가 안날라감 
+        // 그래도 count 가 필요하면 countStrategy 에 따라 정확히/상한까지만/통계로 추정
+        // 조건이 모두 member 컬럼이라 count 에는 team join 이 필요 없다
         JPAQuery<Member> countQuery = queryFactory
             .selectFrom(member)
-            .leftJoin(member.team, team)
             .where(
                 usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe())
             );
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
+        return CountedPage.of(content, pageable, () -> countStrategy.count(countQuery));
+    }
+
+    // 깊은 페이지(offset 이 큰 경우)용 2단계 페이징
+    // 1단계: member.id 만 조건/정렬/offset/limit 으로 조회 -> 넓은 row 를 정렬/스킵하지 않는다
+    // 2단계: 해당 id 들만 projection 조회 후 1단계 순서대로 정렬
+    // CountStrategy 를 직접 넘기면 합치지 않는다 (searchPageComplex 와 같은 이유)
+    @Override
+    public Page<MemberTeamDto> searchPageDeferred(MemberSearchCondition condition, Pageable pageable,
+        CountStrategy countStrategy) {
+        return doSearchPageDeferred(condition, pageable, countStrategy);
+    }
+
+    private Page<MemberTeamDto> doSearchPageDeferred(MemberSearchCondition condition, Pageable pageable,
+        CountStrategy countStrategy) {
+        JPAQuery<Long> idQuery = queryFactory
+            .select(member.id)
+            .from(member)
+            .where(
+                usernameEq(condition.getUsername()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()))
+            .orderBy(sortKeys.toOrderSpecifiers(pageable.getSort()))
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize());
+        List<Long> ids = idQuery.fetch();
+
+        List<MemberTeamDto> content = Collections.emptyList();
+        if (!ids.isEmpty()) {
+            List<MemberTeamDto> rows = queryFactory
+                .select(MemberTeamDtoProjection.of(
+                    member.id.as("memberId"),
+                    member.username,
+                    member.age,
+                    team.id.as("teamId"),
+                    team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.in(ids))
+                .fetch();
+            content = DeferredJoin.orderByIds(ids, rows, MemberTeamDto::getMemberId);
+        }
+
+        JPAQuery<Member> countQuery = queryFactory
+            .selectFrom(member)
+            .where(
+                usernameEq(condition.getUsername()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()));
+        return CountedPage.of(content, pageable, () -> countStrategy.count(countQuery));
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPageDeferred(MemberSearchCondition condition, Pageable pageable,
+        CountMode countMode) {
+        return coalesce("searchPageDeferred", condition, pageable, countMode,
+            () -> doSearchPageDeferred(condition, pageable, countMode.strategy(em, Member.class)),
+            MemberRepositoryImpl::copyOf);
+    }
+
+    // 무한 스크롤처럼 전체 개수가 필요 없는 경우
+    // count query 없이 limit + 1 로 조회해서 다음 페이지 존재 여부만 판단한다
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        return coalesce("searchSlice", condition, pageable, null, () -> doSearchSlice(condition, pageable),
+            MemberRepositoryImpl::copyOf);
+    }
+
+    private Slice<MemberTeamDto> doSearchSlice(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = queryFactory
+            .select(MemberTeamDtoProjection.of(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(
+                usernameEq(condition.getUsername()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()))
+            .orderBy(sortKeys.toOrderSpecifiers(pageable.getSort()))
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize() + 1)
+            .fetch();
 
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content.remove(pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    // 분석용 열 단위 조회
+    // member 테이블만 읽고(teamName 조건도 team id 로 바뀜) 팀 이름은 나온 팀 id 로 한 번만 조회해서 사전으로 담는다
+    // iterate(scroll) 는 커넥션을 잡고 있어야 하므로 읽기 전용 트랜잭션 안에서 실행한다
+    @Override
+    @Transactional(readOnly = true)
+    public MemberColumns searchColumns(MemberSearchCondition condition) {
+        // MemberColumns 는 읽기 전용이라 복사하지 않고 나눠 갖는다
+        return coalesce("searchColumns", condition, null, null, () -> doSearchColumns(condition), columns -> columns);
+    }
+
+    private MemberColumns doSearchColumns(MemberSearchCondition condition) {
+        MemberColumns.Builder builder = MemberColumns.builder(0);
+        // 결과를 List 로 모으지 않고 한 row 씩 배열로 옮긴다
+        try (CloseableIterator<Tuple> rows = queryFactory
+            .select(member.id, member.username, member.age, member.team.id)
+            .from(member)
+            .where(
+                usernameEq(condition.getUsername()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()))
+            .orderBy(member.id.asc())
+            .iterate()) {
+            while (rows.hasNext()) {
+                Tuple row = rows.next();
+                builder.add(row.get(member.id), row.get(member.username), row.get(member.age),
+                    row.get(member.team.id));
+            }
+        }
+
+        Map<Long, String> teamNames = new HashMap<>();
+        if (!builder.teamIds().isEmpty()) {
+            for (Tuple row : queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .where(team.id.in(builder.teamIds()))
+                .fetch()) {
+                teamNames.put(row.get(team.id), row.get(team.name));
+            }
+        }
+        return builder.build(teamNames);
+    }
+
+    // /members/{id} 를 id 마다 부르지 않고 한 번에
+    // 1. 영속성 컨텍스트(OSIV/트랜잭션)에 이미 있는 member 는 쿼리 없이
+    // 2. 나머지는 team fetch join + in 절 (MAX_IN_SIZE 씩, 파라미터 개수는 hibernate 가 패딩해서 쿼리 플랜 재사용)
+    // 영속 엔티티를 돌려주므로 다른 스레드와 결과를 나누는 coalesce 는 하지 않는다
+    @Override
+    public IdLookup<Member> lookupByIds(List<Long> ids) {
+        Map<Long, Member> found = new HashMap<>(ids.size() * 2);
+        List<Long> toLoad = new ArrayList<>();
+        EntityManager current = EntityManagerFactoryUtils.getTransactionalEntityManager(em.getEntityManagerFactory());
+        SessionImplementor session = current == null ? null : current.unwrap(SessionImplementor.class);
+        EntityPersister persister = session == null
+            ? null : session.getFactory().getMetamodel().entityPersister(Member.class);
+
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Object managed = session == null
+                ? null : session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+            if (managed != null) {
+                found.put(id, (Member) managed);
+            } else {
+                toLoad.add(id);
+            }
+        }
+
+        for (int from = 0; from < toLoad.size(); from += MAX_IN_SIZE) {
+            List<Long> chunk = toLoad.subList(from, Math.min(from + MAX_IN_SIZE, toLoad.size()));
+            for (Member loaded : queryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .where(member.id.in(chunk))
+                .fetch()) {
+                found.put(loaded.getId(), loaded);
+            }
+        }
+        return IdLookup.inRequestOrder(ids, found);
+    }
+
+    // 같은 검색이 동시에 들어오면 DB 실행은 한 번만 하고 결과를 나눠 갖는다
+    // dto 는 @Data 라 수정할 수 있으므로 기다리던 호출은 copy 로 만든 복사본을 받는다
+    // 쓰기 트랜잭션 안에서는 아직 커밋 안 된 변경이 보일 수 있으므로 합치지 않는다
+    private <T> T coalesce(String method, MemberSearchCondition condition, Pageable pageable, Object option,
+        Supplier<T> query, UnaryOperator<T> copy) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return query.get();
+        }
+        return singleFlight.execute(new MemberSearchKey(method, condition, pageable, option), query, copy);
+    }
+
+    private static List<MemberTeamDto> copyOf(List<MemberTeamDto> rows) {
+        List<MemberTeamDto> copy = new ArrayList<>(rows.size());
+        for (MemberTeamDto row : rows) {
+            copy.add(new MemberTeamDto(row.getMemberId(), row.getUsername(), row.getAge(), row.getTeamId(),
+                row.getTeamName()));
+        }
+        return copy;
+    }
+
+    private static Page<MemberTeamDto> copyOf(Page<MemberTeamDto> page) {
+        if (page instanceof CountedPage) {
+            return ((CountedPage<MemberTeamDto>) page).withContent(copyOf(page.getContent()));
+        }
+        return new PageImpl<>(copyOf(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private static Slice<MemberTeamDto> copyOf(Slice<MemberTeamDto> slice) {
+        return new SliceImpl<>(copyOf(slice.getContent()), slice.getPageable(), slice.hasNext());
     }
 
     private BooleanExpression usernameEq(String username) {
         return hasText(username) ? member.username.eq(username) : null;
     }
-    private BooleanExpression teamNameEq(String teanName) {
-        return hasText(teanName) ? team.name.eq(teanName) : null;
-    }
     private BooleanExpression ageGoe(Integer ageGoe) {
         return ageGoe != null ? member.age.goe(ageGoe) : null;
     }
@@ -0,0 +1,21 @@
+package com.example.dsl.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.dsl.repository.support.SingleFlight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MemberSearchCoalescingConfig {
+
+    // 인기 팀 페이지처럼 같은 검색이 동시에 몰릴 때 DB 실행은 한 번만
+    @Bean
+    SingleFlight memberSearchSingleFlight(MeterRegistry meterRegistry,
+        @Value("${app.coalescing.stripes:64}") int stripes,
+        @Value("${app.coalescing.timeout-ms:5000}") long timeoutMillis) {
+        return new SingleFlight("member.search", stripes, timeoutMillis, meterRegistry);
+    }
+}
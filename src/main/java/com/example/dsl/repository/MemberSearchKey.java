@@ -0,0 +1,38 @@
+package com.example.dsl.repository;
+
+import com.example.dsl.dto.MemberSearchCondition;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 요청 합치기(single flight)용 키
+ * 검색 조건에서 빈 문자열은 null 과 같은 조건이므로 정규화한다.
+ */
+@EqualsAndHashCode
+@ToString
+class MemberSearchKey {
+
+    private final String method;
+    private final MemberSearchCondition condition;
+    private final Object pageable;
+    private final Object option;
+
+    MemberSearchKey(String method, MemberSearchCondition condition, Object pageable, Object option) {
+        this.method = method;
+        this.condition = normalize(condition);
+        this.pageable = pageable;
+        this.option = option;
+    }
+
+    private static MemberSearchCondition normalize(MemberSearchCondition condition) {
+        MemberSearchCondition normalized = new MemberSearchCondition();
+        normalized.setUsername(hasText(condition.getUsername()) ? condition.getUsername() : null);
+        normalized.setTeamName(hasText(condition.getTeamName()) ? condition.getTeamName() : null);
+        normalized.setAgeGoe(condition.getAgeGoe());
+        normalized.setAgeLoe(condition.getAgeLoe());
+        return normalized;
+    }
+}
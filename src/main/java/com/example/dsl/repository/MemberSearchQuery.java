@@ -0,0 +1,15 @@
+package com.example.dsl.repository;
+
+import java.util.List;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.dto.MemberTeamDto;
+
+/**
+ * /v1/members 검색 (페이징 없음)
+ * 기본은 querydsl(JPA), jdbc-search 프로파일이면 JDBC 로 바로 조회한다.
+ */
+public interface MemberSearchQuery {
+
+    List<MemberTeamDto> search(MemberSearchCondition condition);
+}
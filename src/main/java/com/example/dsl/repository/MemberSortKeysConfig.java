@@ -0,0 +1,24 @@
+package com.example.dsl.repository;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.dsl.entity.Member;
+import com.example.dsl.repository.support.SortKeys;
+
+import static com.example.dsl.entity.QMember.member;
+
+@Configuration
+public class MemberSortKeysConfig {
+
+    // member 테이블의 단일 컬럼만 허용, 연관관계(team.name 등) 경로는 허용하지 않음
+    @Bean
+    SortKeys memberSortKeys() {
+        return SortKeys.builder(Member.class)
+            .allow("username", member.username)
+            .allow("age", member.age)
+            .tieBreaker("id", member.id)
+            .alias("memberId", "id")
+            .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.dsl.repository;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.support.PageableExecutionUtils;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Repository;
 import com.example.dsl.dto.MemberSearchCondition;
 import com.example.dsl.entity.Member;
 import com.example.dsl.entity.QMember;
+import com.example.dsl.repository.support.CountMode;
 import com.example.dsl.repository.support.Querydsl4RepositorySupport;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
@@ -21,10 +23,17 @@ import static org.springframework.util.StringUtils.hasText;
 @Repository
 public class MemberTestRepository extends Querydsl4RepositorySupport {
 
+    private TeamIdResolver teamIdResolver;
+
     public MemberTestRepository() {
         super(Member.class);
     }
 
+    @Autowired
+    public void setTeamIdResolver(TeamIdResolver teamIdResolver) {
+        this.teamIdResolver = teamIdResolver;
+    }
+
     public List<Member> basciSelect() {
         return select(member)
             .from(member)
@@ -38,12 +47,11 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
 
     public Page<Member> searchPageByApplyPage(MemberSearchCondition condition, Pageable pageable) {
         JPAQuery<Member> query = selectFrom(member)
-            .leftJoin(member.team, team)
             .where(usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe()));
-        List<Member> content = getQuerydsl().applyPagination(pageable, query).fetch();
+        List<Member> content = applyPageable(pageable, query).fetch();
         return PageableExecutionUtils.getPage(content, pageable, query::fetchCount);
     }
 
@@ -52,9 +60,8 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
     public Page<Member> applyPaginationSimple(MemberSearchCondition condition, Pageable pageable) {
         return applyPagination(pageable, query -> query
             .selectFrom(member)
-            .leftJoin(member.team, team)
             .where(usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
+                teamIdResolver.teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe()))
         );
@@ -64,28 +71,69 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
         return applyPagination(pageable,
             query -> query
                 .selectFrom(member)
-                .leftJoin(member.team, team)
                 .where(usernameEq(condition.getUsername()),
-                    teamNameEq(condition.getTeamName()),
+                    teamIdResolver.teamNameEq(condition.getTeamName()),
                     ageGoe(condition.getAgeGoe()),
                     ageLoe(condition.getAgeLoe())
                 ),
             countQuery -> countQuery
                 .selectFrom(member)
-                .leftJoin(member.team, team)
                 .where(usernameEq(condition.getUsername()),
-                    teamNameEq(condition.getTeamName()),
+                    teamIdResolver.teamNameEq(condition.getTeamName()),
                     ageGoe(condition.getAgeGoe()),
                     ageLoe(condition.getAgeLoe()))
         );
     }
 
-    private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+    // count 방식을 호출하는 쪽에서 고른다 (EXACT / CAPPED / ESTIMATED)
+    public Page<Member> applyPaginationComplex(MemberSearchCondition condition, Pageable pageable,
+        CountMode countMode) {
+        return applyPagination(pageable,
+            query -> query
+                .selectFrom(member)
+                .where(usernameEq(condition.getUsername()),
+                    teamIdResolver.teamNameEq(condition.getTeamName()),
+                    ageGoe(condition.getAgeGoe()),
+                    ageLoe(condition.getAgeLoe())
+                ),
+            countQuery -> countQuery
+                .selectFrom(member)
+                .where(usernameEq(condition.getUsername()),
+                    teamIdResolver.teamNameEq(condition.getTeamName()),
+                    ageGoe(condition.getAgeGoe()),
+                    ageLoe(condition.getAgeLoe())),
+            countStrategy(countMode)
+        );
     }
 
-    private BooleanExpression teamNameEq(String teanName) {
-        return hasText(teanName) ? team.name.eq(teanName) : null;
+    // 깊은 페이지용: id 만 먼저 페이징하고 본 조회는 fetch join
+    public Page<Member> applyPaginationDeferred(MemberSearchCondition condition, Pageable pageable,
+        CountMode countMode) {
+        return applyDeferredPagination(pageable,
+            query -> query
+                .select(member.id)
+                .from(member)
+                .where(usernameEq(condition.getUsername()),
+                    teamIdResolver.teamNameEq(condition.getTeamName()),
+                    ageGoe(condition.getAgeGoe()),
+                    ageLoe(condition.getAgeLoe())),
+            (query, ids) -> query
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .where(member.id.in(ids)),
+            Member::getId,
+            countQuery -> countQuery
+                .selectFrom(member)
+                .where(usernameEq(condition.getUsername()),
+                    teamIdResolver.teamNameEq(condition.getTeamName()),
+                    ageGoe(condition.getAgeGoe()),
+                    ageLoe(condition.getAgeLoe())),
+            countStrategy(countMode)
+        );
+    }
+
+    private BooleanExpression usernameEq(String username) {
+        return hasText(username) ? member.username.eq(username) : null;
     }
 
     private BooleanExpression ageGoe(Integer ageGoe) {
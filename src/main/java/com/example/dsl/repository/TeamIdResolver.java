@@ -0,0 +1,200 @@
+package com.example.dsl.repository;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.dsl.cache.DataVersions;
+import com.example.dsl.cache.SnapshotCache;
+import com.example.dsl.entity.DataVersion;
+import com.example.dsl.entity.TeamChangedEvent;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import static com.example.dsl.entity.QMember.member;
+import static com.example.dsl.entity.QTeam.team;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 팀 이름 -> 팀 id 조회 캐시
+ * teamName 조건을 team.name = ? (join 필요) 대신 member.team_id in (?) 로 바꿔서
+ * member 테이블만 보는 쿼리가 되도록 한다.
+ *
+ * 팀이 바뀌면 트랜잭션이 끝난 뒤 비우고, 벌크 수정처럼 listener 를 거치지 않는 경우를 위해 ttl 도 둔다.
+ * 재시작할 때는 스냅샷(CacheSnapshots)에서 복원한다. 항목마다 조회한 시각을 같이 남겨서 ttl 은 이어서 계산한다.
+ */
+@Component
+public class TeamIdResolver implements SnapshotCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final JPAQueryFactory queryFactory;
+    private final DataVersions dataVersions;
+    private final long ttlNanos;
+    private final Map<String, Resolved> cache = new ConcurrentHashMap<>();
+    // 조회 도중 무효화된 값을 다시 넣지 않기 위한 세대 번호
+    private final AtomicLong generation = new AtomicLong();
+
+    public TeamIdResolver(JPAQueryFactory queryFactory, DataVersions dataVersions,
+        @Value("${app.query.team-id-cache-ttl:30s}") Duration ttl) {
+        this.queryFactory = queryFactory;
+        this.dataVersions = dataVersions;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public List<Long> resolve(String teamName) {
+        // 쓰기 트랜잭션 안에서는 아직 커밋 안 된 팀이 있을 수 있으므로 캐시를 쓰지 않는다
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return load(teamName);
+        }
+
+        long now = System.nanoTime();
+        Resolved resolved = cache.get(teamName);
+        if (resolved != null && now - resolved.loadedAt < ttlNanos) {
+            return resolved.ids;
+        }
+
+        long loadGeneration = generation.get();
+        List<Long> ids = load(teamName);
+        if (cache.size() >= MAX_ENTRIES) {
+            cache.clear();
+        }
+        cache.put(teamName, new Resolved(ids, now));
+        if (generation.get() != loadGeneration) {
+            cache.remove(teamName);
+        }
+        return ids;
+    }
+
+    /**
+     * 팀 이름 조건을 member.team_id in (?) 로 바꾼 where 절 (이름이 없으면 null -> 조건 없음)
+     * 멤버 검색 리포지토리들은 모두 이걸 쓴다 -> team join 없이 member 테이블만 본다
+     */
+    public BooleanExpression teamNameEq(String teamName) {
+        if (!hasText(teamName)) {
+            return null;
+        }
+        List<Long> teamIds = resolve(teamName);
+        // 없는 팀이면 결과도 없다 (member.id 는 null 일 수 없음)
+        return teamIds.isEmpty() ? member.id.isNull() : member.team.id.in(teamIds);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onTeamChanged(TeamChangedEvent event) {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    @Override
+    public String snapshotName() {
+        return "team-ids";
+    }
+
+    // nanoTime 은 프로세스가 바뀌면 의미가 없으므로 조회 시각은 epoch millis 로 남긴다
+    @Override
+    public void writeSnapshot(DataOutput out) throws IOException {
+        long now = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        Map<String, Resolved> live = new HashMap<>();
+        cache.forEach((name, resolved) -> {
+            if (now - resolved.loadedAt < ttlNanos) {
+                live.put(name, resolved);
+            }
+        });
+        out.writeInt(live.size());
+        for (Map.Entry<String, Resolved> entry : live.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(nowMillis - TimeUnit.NANOSECONDS.toMillis(now - entry.getValue().loadedAt));
+            out.writeInt(entry.getValue().ids.size());
+            for (Long id : entry.getValue().ids) {
+                out.writeLong(id);
+            }
+        }
+    }
+
+    @Override
+    public int readSnapshot(DataInput in) throws IOException {
+        long now = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        int entries = Math.min(in.readInt(), MAX_ENTRIES);
+        int restored = 0;
+        for (int i = 0; i < entries; i++) {
+            String name = in.readUTF();
+            long ageNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, nowMillis - in.readLong()));
+            int size = in.readInt();
+            List<Long> ids = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                ids.add(in.readLong());
+            }
+            // 꺼져 있던 시간도 ttl 에 들어간다
+            if (ageNanos < ttlNanos) {
+                cache.put(name, new Resolved(ids, now - ageNanos));
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    @Override
+    public String dataVersion() {
+        return dataVersions.current(DataVersion.TEAM);
+    }
+
+    // 복원한 이름들을 쿼리 한 번으로 다시 조회
+    @Override
+    public void revalidate() {
+        Set<String> names = cache.keySet();
+        if (names.isEmpty()) {
+            return;
+        }
+        Map<String, List<Long>> reloaded = new HashMap<>();
+        for (String name : names) {
+            reloaded.put(name, new ArrayList<>());
+        }
+        List<Tuple> rows = queryFactory
+            .select(team.name, team.id)
+            .from(team)
+            .where(team.name.in(reloaded.keySet()))
+            .fetch();
+        for (Tuple row : rows) {
+            reloaded.get(row.get(team.name)).add(row.get(team.id));
+        }
+        long now = System.nanoTime();
+        reloaded.forEach((name, ids) -> cache.put(name, new Resolved(ids, now)));
+    }
+
+    private List<Long> load(String teamName) {
+        return queryFactory
+            .select(team.id)
+            .from(team)
+            .where(team.name.eq(teamName))
+            .fetch();
+    }
+
+    private static final class Resolved {
+        private final List<Long> ids;
+        private final long loadedAt;
+
+        private Resolved(List<Long> ids, long loadedAt) {
+            this.ids = ids;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
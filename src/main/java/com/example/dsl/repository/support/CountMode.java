@@ -0,0 +1,25 @@
+package com.example.dsl.repository.support;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 요청 파라미터로 선택하는 count 방식
+ * /v3/members?count=CAPPED
+ */
+public enum CountMode {
+    EXACT,
+    CAPPED,
+    ESTIMATED;
+
+    public CountStrategy strategy(EntityManager em, Class<?> domainClass) {
+        switch (this) {
+            case CAPPED:
+                return CountStrategy.capped(CountStrategy.DEFAULT_CAP);
+            case ESTIMATED:
+                return CountStrategy.estimated(
+                    () -> TableStatistics.rowCountEstimate(em, domainClass), CountStrategy.DEFAULT_CAP);
+            default:
+                return CountStrategy.exact();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.dsl.repository.support;
+
+import java.util.function.LongSupplier;
+
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQuery;
+
+/**
+ * count query 를 어떻게 날릴지 결정한다.
+ * PageableExecutionUtils.getPage(..., countQuery::fetchCount) 는 무조건 전체 count 라서
+ * 수백만 건에서는 count 가 페이지 조회보다 더 오래 걸린다.
+ */
+@FunctionalInterface
+public interface CountStrategy {
+
+    long DEFAULT_CAP = 10_000;
+
+    PageTotal count(JPAQuery<?> countQuery);
+
+    // 기존과 동일한 전체 count
+    static CountStrategy exact() {
+        return countQuery -> PageTotal.exact(countQuery.fetchCount());
+    }
+
+    // cap + 1 건까지만 읽고 멈춘다 -> 화면에는 "10000+"
+    // select 1 ... limit cap+1 이라 DB 가 cap+1 건에서 스캔을 멈출 수 있다
+    static CountStrategy capped(long cap) {
+        return countQuery -> {
+            int found = countQuery.clone()
+                .select(Expressions.numberTemplate(Integer.class, "1"))
+                .limit(cap + 1)
+                .fetch()
+                .size();
+            return found > cap ? PageTotal.atLeast(cap) : PageTotal.exact(found);
+        };
+    }
+
+    // 조건이 없으면 테이블 통계로 추정하고, 조건이 있으면 통계가 의미 없으니 capped 로 처리
+    static CountStrategy estimated(LongSupplier rowCountEstimate, long cap) {
+        CountStrategy fallback = capped(cap);
+        return countQuery -> {
+            if (countQuery.getMetadata().getWhere() != null) {
+                return fallback.count(countQuery);
+            }
+            long estimate = rowCountEstimate.getAsLong();
+            return estimate < 0 ? fallback.count(countQuery) : PageTotal.estimated(estimate);
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.dsl.repository.support;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.example.dsl.deadline.Deadline;
+
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * 전체 개수가 정확하지 않을 수 있는 Page
+ * 응답에 totalDisplay("10000+"), totalExact 가 같이 내려간다.
+ */
+public class CountedPage<T> extends PageImpl<T> {
+
+    private final PageTotal pageTotal;
+
+    private CountedPage(List<T> content, Pageable pageable, PageTotal pageTotal) {
+        super(content, pageable, pageTotal.getValue());
+        this.pageTotal = pageTotal;
+    }
+
+    // PageableExecutionUtils.getPage 와 같은 규칙으로 count 를 생략할 수 있으면 생략한다
+    public static <T> CountedPage<T> of(List<T> content, Pageable pageable, Supplier<PageTotal> totalSupplier) {
+        if (pageable.isUnpaged()) {
+            return new CountedPage<>(content, pageable, PageTotal.exact(content.size()));
+        }
+        long loaded = pageable.getOffset() + content.size();
+        boolean lastPage = content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty());
+        if (lastPage) {
+            return new CountedPage<>(content, pageable, PageTotal.exact(loaded));
+        }
+
+        // 요청 시간이 거의 다 됐으면 count 는 생략하고 다음 페이지가 있다고만 알려준다 ("n+")
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isNearlySpent()) {
+            Metrics.counter("request.deadline.skipped", "work", "count").increment();
+            deadline.markDegraded();
+            return new CountedPage<>(content, pageable, PageTotal.atLeast(loaded + 1));
+        }
+
+        PageTotal total = totalSupplier.get();
+        // 상한/추정치가 이미 읽은 것보다 작으면 최소한 다음 페이지가 있다고 알려준다
+        if (!total.isExact() && total.getValue() <= loaded) {
+            total = PageTotal.atLeast(loaded + 1);
+        }
+        return new CountedPage<>(content, pageable, total);
+    }
+
+    // total 은 그대로 두고 content 만 바꾼 page (coalesce 된 결과를 호출자마다 복사할 때)
+    public CountedPage<T> withContent(List<T> content) {
+        return new CountedPage<>(content, getPageable(), pageTotal);
+    }
+
+    public boolean isTotalExact() {
+        return pageTotal.isExact();
+    }
+
+    public String getTotalDisplay() {
+        return pageTotal.getDisplay();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.dsl.repository.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 2단계 페이징 (deferred join)
+ * 1단계: id 만 정렬/offset/limit 으로 조회 (인덱스만으로 처리 가능)
+ * 2단계: 그 id 들만 fetch join 으로 조회
+ * in 절은 순서를 보장하지 않으니 1단계 순서대로 다시 정렬해야 한다.
+ */
+public final class DeferredJoin {
+
+    private DeferredJoin() {
+    }
+
+    public static <T> List<T> orderByIds(List<Long> ids, List<T> rows, Function<T, Long> idExtractor) {
+        Map<Long, T> byId = new HashMap<>(rows.size() * 2);
+        for (T row : rows) {
+            byId.put(idExtractor.apply(row), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.dsl.repository.support;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import lombok.Getter;
+
+/**
+ * 여러 id 조회 결과
+ * found 는 요청한 id 순서대로 (중복 id 는 한 번만), 없는 id 는 missing 으로
+ */
+@Getter
+public class IdLookup<T> {
+
+    private final List<T> found;
+    private final List<Long> missing;
+
+    private IdLookup(List<T> found, List<Long> missing) {
+        this.found = found;
+        this.missing = missing;
+    }
+
+    public static <T> IdLookup<T> inRequestOrder(List<Long> requestedIds, Map<Long, T> byId) {
+        List<T> found = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(requestedIds)) {
+            T value = byId.get(id);
+            if (value != null) {
+                found.add(value);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new IdLookup<>(found, missing);
+    }
+
+    public <R> IdLookup<R> map(Function<T, R> mapper) {
+        List<R> mapped = new ArrayList<>(found.size());
+        for (T value : found) {
+            mapped.add(mapper.apply(value));
+        }
+        return new IdLookup<>(mapped, missing);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.dsl.repository.support;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * id 구간 [fromInclusive, toExclusive)
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class IdRange {
+
+    private final long fromInclusive;
+    private final long toExclusive;
+
+    public IdRange(long fromInclusive, long toExclusive) {
+        this.fromInclusive = fromInclusive;
+        this.toExclusive = toExclusive;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.dsl.repository.support;
+
+import lombok.Getter;
+
+/**
+ * 페이지의 전체 개수
+ * 정확한 값이 아닐 수도 있다. (상한에서 멈춘 값, 통계 기반 추정치)
+ */
+@Getter
+public class PageTotal {
+
+    public enum Kind {
+        EXACT,      // 정확한 count
+        AT_LEAST,   // 상한(cap)에서 멈춤 -> "10000+"
+        ESTIMATED   // 테이블 통계 기반 추정 -> "~12345"
+    }
+
+    private final long value;
+    private final Kind kind;
+
+    private PageTotal(long value, Kind kind) {
+        this.value = value;
+        this.kind = kind;
+    }
+
+    public static PageTotal exact(long value) {
+        return new PageTotal(value, Kind.EXACT);
+    }
+
+    public static PageTotal atLeast(long value) {
+        return new PageTotal(value, Kind.AT_LEAST);
+    }
+
+    public static PageTotal estimated(long value) {
+        return new PageTotal(value, Kind.ESTIMATED);
+    }
+
+    public boolean isExact() {
+        return kind == Kind.EXACT;
+    }
+
+    public String getDisplay() {
+        switch (kind) {
+            case AT_LEAST:
+                return value + "+";
+            case ESTIMATED:
+                return "~" + value;
+            default:
+                return String.valueOf(value);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.dsl.repository.support;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import javax.annotation.PostConstruct;
 import javax.persistence.Entity;
@@ -34,6 +36,8 @@ public class Querydsl4RepositorySupport {
 
     private JPAQueryFactory queryFactory;
 
+    private SortKeys sortKeys;
+
     public Querydsl4RepositorySupport(Class<?> domainClass) {
         Assert.notNull(domainClass, "Domain class must not be null!");
         this.domainClass = domainClass;
@@ -54,6 +58,11 @@ public class Querydsl4RepositorySupport {
         this.queryFactory = new JPAQueryFactory(entityManager);
     }
 
+    @Autowired
+    public void setSortKeyRegistry(SortKeyRegistry sortKeyRegistry) {
+        this.sortKeys = sortKeyRegistry.find(domainClass);
+    }
+
     @PostConstruct
     public void validate() {
         Assert.notNull(entityManager, "EntityManager must not be null!");
@@ -73,6 +82,24 @@ public class Querydsl4RepositorySupport {
         return entityManager;
     }
 
+    protected SortKeys getSortKeys() {
+        return sortKeys;
+    }
+
+    // 등록된 SortKeys 가 있으면 미리 만들어둔 OrderSpecifier 로 정렬 (허용 안 된 키는 거부)
+    // 없으면 기존처럼 Querydsl(PathBuilder) 로 처리
+    @SuppressWarnings("unchecked")
+    protected <T> JPAQuery<T> applyPageable(Pageable pageable, JPAQuery<T> query) {
+        if (sortKeys == null) {
+            return (JPAQuery<T>) getQuerydsl().applyPagination(pageable, query);
+        }
+        if (pageable.isPaged()) {
+            query.offset(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        }
+        return query.orderBy(sortKeys.toOrderSpecifiers(pageable.getSort()));
+    }
+
     protected <T> JPAQuery<T> select(Expression<T> expr) {
         return getQueryFactory().select(expr);
     }
@@ -84,7 +111,7 @@ public class Querydsl4RepositorySupport {
     protected <T> Page<T> applyPagination(Pageable pageable,
         Function<JPAQueryFactory, JPAQuery> contentQuery) {
         JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
-        List<T> content = getQuerydsl().applyPagination(pageable, jpaQuery).fetch();
+        List<T> content = applyPageable(pageable, jpaQuery).fetch();
         return PageableExecutionUtils.getPage(content, pageable, jpaQuery::fetchCount);
     }
 
@@ -93,10 +120,45 @@ public class Querydsl4RepositorySupport {
         Function<JPAQueryFactory, JPAQuery> countQuery) {
 
         JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
-        List<T> content = getQuerydsl().applyPagination(pageable, jpaContentQuery).fetch();
+        List<T> content = applyPageable(pageable, jpaContentQuery).fetch();
 
         JPAQuery countResult = countQuery.apply(getQueryFactory());
         return PageableExecutionUtils.getPage(content, pageable, countResult::fetchCount);
     }
-}
 
+    protected <T> Page<T> applyPagination(Pageable pageable,
+        Function<JPAQueryFactory, JPAQuery> contentQuery,
+        Function<JPAQueryFactory, JPAQuery> countQuery,
+        CountStrategy countStrategy) {
+
+        JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
+        List<T> content = applyPageable(pageable, jpaContentQuery).fetch();
+
+        JPAQuery countResult = countQuery.apply(getQueryFactory());
+        return CountedPage.of(content, pageable, () -> countStrategy.count(countResult));
+    }
+
+    protected CountStrategy countStrategy(CountMode countMode) {
+        return countMode.strategy(getEntityManager(), domainClass);
+    }
+
+    // 깊은 offset 용 2단계 페이징
+    // idQuery 는 id 만 select 하고, contentQuery 는 그 id 들로 fetch join 조회
+    protected <T> Page<T> applyDeferredPagination(Pageable pageable,
+        Function<JPAQueryFactory, JPAQuery<Long>> idQuery,
+        BiFunction<JPAQueryFactory, List<Long>, JPAQuery<T>> contentQuery,
+        Function<T, Long> idExtractor,
+        Function<JPAQueryFactory, JPAQuery> countQuery,
+        CountStrategy countStrategy) {
+
+        JPAQuery<Long> jpaIdQuery = idQuery.apply(getQueryFactory());
+        List<Long> ids = applyPageable(pageable, jpaIdQuery).fetch();
+
+        List<T> content = ids.isEmpty()
+            ? Collections.emptyList()
+            : DeferredJoin.orderByIds(ids, contentQuery.apply(getQueryFactory(), ids).fetch(), idExtractor);
+
+        JPAQuery countResult = countQuery.apply(getQueryFactory());
+        return CountedPage.of(content, pageable, () -> countStrategy.count(countResult));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.dsl.repository.support;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import com.example.dsl.deadline.Deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 같은 키로 동시에 들어온 호출은 한 번만 실행하고 결과를 나눠 갖는다. (single flight)
+ * 캐시가 아니라서 실행이 끝나면 바로 잊는다 -> 오래된 결과를 돌려주는 일이 없다.
+ *
+ * 진행 중인 호출 목록은 키 해시로 나눈 stripe 마다 따로 잠근다.
+ * 먼저 온 호출(leader)을 기다리던 호출(follower)은 timeout 이 지나면 직접 실행한다.
+ * 결과가 변경 가능한 객체면 copy 를 넘겨서 follower 마다 복사본을 받게 한다 (leader 는 원본).
+ *
+ * 요청마다 deadline(Deadline.current())이 다르므로
+ * - follower 는 timeout 과 자기 남은 시간 중 짧은 만큼만 기다린다
+ * - leader 의 deadline 때문에 실패했거나(시간 초과) 줄어든 결과(count 생략)는 나누지 않고,
+ *   기다리던 follower 는 자기 deadline 으로 직접 실행한다
+ */
+public class SingleFlight {
+
+    // leader 의 결과를 나눌 수 없을 때 follower 에게 주는 표시
+    private static final Object NOT_SHARED = new Object();
+
+    private final Stripe[] stripes;
+    private final long timeoutMillis;
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter timeouts;
+    private final Counter notShared;
+
+    public SingleFlight(String name, int stripeCount, long timeoutMillis, MeterRegistry meterRegistry) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.leaders = counter(meterRegistry, name, "leader");
+        this.followers = counter(meterRegistry, name, "follower");
+        this.timeouts = counter(meterRegistry, name, "timeout");
+        this.notShared = counter(meterRegistry, name, "not-shared");
+        // 전체 호출 중 다른 호출의 결과를 받아간 비율
+        Gauge.builder(name + ".coalescing.ratio", this, SingleFlight::coalescingRatio)
+            .register(meterRegistry);
+    }
+
+    public <V> V execute(Object key, Supplier<V> loader) {
+        return execute(key, loader, UnaryOperator.identity());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(Object key, Supplier<V> loader, UnaryOperator<V> copy) {
+        Stripe stripe = stripeFor(key);
+        CompletableFuture<Object> call;
+        boolean leader = false;
+
+        stripe.lock.lock();
+        try {
+            call = stripe.inFlight.get(key);
+            if (call == null) {
+                call = new CompletableFuture<>();
+                stripe.inFlight.put(key, call);
+                leader = true;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (leader) {
+            leaders.increment();
+            return lead(stripe, key, call, loader);
+        }
+
+        followers.increment();
+        Deadline deadline = Deadline.current();
+        long waitMillis = deadline == null ? timeoutMillis : Math.min(timeoutMillis, Math.max(0, deadline.remainingMillis()));
+        try {
+            Object value = call.get(waitMillis, TimeUnit.MILLISECONDS);
+            if (value == NOT_SHARED) {
+                notShared.increment();
+                return loader.get();
+            }
+            return copy.apply((V) value);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight call " + key, e);
+        }
+    }
+
+    public double coalescingRatio() {
+        double total = leaders.count() + followers.count();
+        return total == 0 ? 0 : followers.count() / total;
+    }
+
+    private <V> V lead(Stripe stripe, Object key, CompletableFuture<Object> call, Supplier<V> loader) {
+        Deadline deadline = Deadline.current();
+        int degradationsBefore = deadline == null ? 0 : deadline.degradations();
+        try {
+            V value = loader.get();
+            boolean degraded = deadline != null && deadline.degradations() != degradationsBefore;
+            call.complete(degraded ? NOT_SHARED : value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            if (isDeadlineFailure(deadline, e)) {
+                call.complete(NOT_SHARED);
+            } else {
+                call.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            stripe.lock.lock();
+            try {
+                stripe.inFlight.remove(key, call);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    // leader 자신의 시간이 다 돼서 난 실패는 다른 호출과 상관없다
+    private static boolean isDeadlineFailure(Deadline deadline, Throwable failure) {
+        return (deadline != null && deadline.isExpired()) || failure instanceof QueryTimeoutException;
+    }
+
+    private Stripe stripeFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String role) {
+        return Counter.builder(name + ".coalescing.calls")
+            .tag("role", role)
+            .register(meterRegistry);
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Object, CompletableFuture<Object>> inFlight = new HashMap<>();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.dsl.repository.support;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 도메인 클래스 -> SortKeys
+ * SortKeys 를 빈으로 등록하면 여기 모인다.
+ * Querydsl4RepositorySupport 를 상속한 리포지토리는 domainClass 로 찾아서 같이 쓴다.
+ */
+@Component
+public class SortKeyRegistry {
+
+    private final Map<Class<?>, SortKeys> sortKeys = new ConcurrentHashMap<>();
+
+    public SortKeyRegistry(List<SortKeys> sortKeys) {
+        for (SortKeys keys : sortKeys) {
+            register(keys);
+        }
+    }
+
+    public void register(SortKeys keys) {
+        SortKeys previous = sortKeys.putIfAbsent(keys.getDomainClass(), keys);
+        if (previous != null && previous != keys) {
+            throw new IllegalStateException("SortKeys already registered for " + keys.getDomainClass());
+        }
+    }
+
+    // 등록 안 된 도메인은 null -> 기존 Querydsl.applyPagination 으로 처리
+    public SortKeys find(Class<?> domainClass) {
+        return sortKeys.get(domainClass);
+    }
+
+    public SortKeys get(Class<?> domainClass) {
+        SortKeys keys = find(domainClass);
+        if (keys == null) {
+            throw new IllegalStateException("No SortKeys registered for " + domainClass);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.dsl.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+
+import lombok.Getter;
+
+/**
+ * 도메인 클래스별로 허용된 정렬 키
+ * Querydsl.applyPagination 은 요청이 올 때마다 PathBuilder 로 프로퍼티 문자열을 해석하고,
+ * 클라이언트가 보낸 아무 프로퍼티(인덱스 없는 컬럼, 연관관계 경로)로나 정렬해버린다.
+ * 여기서는 허용된 키의 OrderSpecifier 를 미리 만들어 두고 나머지는 거부(또는 무시)한다.
+ */
+public class SortKeys {
+
+    public enum UnknownKeyPolicy {
+        REJECT, // UnsupportedSortException -> 400
+        IGNORE  // 조용히 버림
+    }
+
+    private static final int DIRECTIONS = Sort.Direction.values().length;
+    private static final int NULL_HANDLINGS = Sort.NullHandling.values().length;
+
+    @Getter
+    private final Class<?> domainClass;
+    private final Map<String, OrderSpecifier<?>[]> specifiers;
+    private final Map<String, String> aliases;
+    private final String tieBreakerKey;
+    private final OrderSpecifier<?> tieBreaker;
+    private final UnknownKeyPolicy unknownKeyPolicy;
+
+    private SortKeys(Builder builder) {
+        this.domainClass = builder.domainClass;
+        this.specifiers = Collections.unmodifiableMap(new HashMap<>(builder.specifiers));
+        this.aliases = Collections.unmodifiableMap(new HashMap<>(builder.aliases));
+        this.tieBreakerKey = builder.tieBreakerKey;
+        this.tieBreaker = builder.tieBreaker;
+        this.unknownKeyPolicy = builder.unknownKeyPolicy;
+    }
+
+    public static Builder builder(Class<?> domainClass) {
+        return new Builder(domainClass);
+    }
+
+    // 정렬 조건이 없어도 tie-breaker(id) 는 항상 붙는다 -> 페이지 사이에 row 가 흔들리지 않음
+    public OrderSpecifier<?>[] toOrderSpecifiers(Sort sort) {
+        List<OrderSpecifier<?>> result = new ArrayList<>();
+        boolean tieBreakerIncluded = false;
+        for (Sort.Order order : sort) {
+            String key = aliases.getOrDefault(order.getProperty(), order.getProperty());
+            OrderSpecifier<?>[] candidates = specifiers.get(key);
+            if (candidates == null) {
+                if (unknownKeyPolicy == UnknownKeyPolicy.REJECT) {
+                    throw new UnsupportedSortException(domainClass, order.getProperty(), specifiers.keySet());
+                }
+                continue;
+            }
+            result.add(candidates[index(order.getDirection(), order.getNullHandling())]);
+            tieBreakerIncluded |= key.equals(tieBreakerKey);
+        }
+        if (tieBreaker != null && !tieBreakerIncluded) {
+            result.add(tieBreaker);
+        }
+        return result.toArray(new OrderSpecifier<?>[0]);
+    }
+
+    private static int index(Sort.Direction direction, Sort.NullHandling nullHandling) {
+        return direction.ordinal() * NULL_HANDLINGS + nullHandling.ordinal();
+    }
+
+    public static class Builder {
+
+        private final Class<?> domainClass;
+        private final Map<String, OrderSpecifier<?>[]> specifiers = new HashMap<>();
+        private final Map<String, String> aliases = new HashMap<>();
+        private String tieBreakerKey;
+        private OrderSpecifier<?> tieBreaker;
+        private UnknownKeyPolicy unknownKeyPolicy = UnknownKeyPolicy.REJECT;
+
+        private Builder(Class<?> domainClass) {
+            this.domainClass = domainClass;
+        }
+
+        public Builder allow(String key, ComparableExpressionBase<?> expression) {
+            OrderSpecifier<?>[] candidates = new OrderSpecifier<?>[DIRECTIONS * NULL_HANDLINGS];
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                OrderSpecifier<?> base = direction.isAscending() ? expression.asc() : expression.desc();
+                candidates[index(direction, Sort.NullHandling.NATIVE)] = base;
+                candidates[index(direction, Sort.NullHandling.NULLS_FIRST)] = base.nullsFirst();
+                candidates[index(direction, Sort.NullHandling.NULLS_LAST)] = base.nullsLast();
+            }
+            specifiers.put(key, candidates);
+            return this;
+        }
+
+        // 클라이언트가 쓰는 이름 -> 허용된 키 (ex. memberId -> id)
+        public Builder alias(String property, String key) {
+            aliases.put(property, key);
+            return this;
+        }
+
+        public Builder tieBreaker(String key, ComparableExpressionBase<?> expression) {
+            allow(key, expression);
+            this.tieBreakerKey = key;
+            this.tieBreaker = expression.asc();
+            return this;
+        }
+
+        public Builder onUnknownKey(UnknownKeyPolicy policy) {
+            this.unknownKeyPolicy = policy;
+            return this;
+        }
+
+        public SortKeys build() {
+            return new SortKeys(this);
+        }
+    }
+}
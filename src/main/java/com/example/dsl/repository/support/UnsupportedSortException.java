@@ -0,0 +1,15 @@
+package com.example.dsl.repository.support;
+
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedSortException extends IllegalArgumentException {
+
+    public UnsupportedSortException(Class<?> domainClass, String property, Set<String> allowed) {
+        super("Sort by '" + property + "' is not allowed for " + domainClass.getSimpleName()
+            + ". Allowed: " + allowed);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.dsl.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.dto.MemberTeamDto;
+import com.example.dsl.entity.Member;
+import com.example.dsl.repository.support.UnsupportedSortException;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 샤드마다 실행할 SQL 과, 샤드 결과를 합칠 때 쓸 같은 순서의 Comparator
+ * DB 정렬과 Comparator 가 어긋나지 않도록 null 위치도 명시한다. (asc -> nulls first, desc -> nulls last)
+ */
+class ShardQuery {
+
+    private static final String COLUMNS = "select m.member_id, m.username, m.age, t.team_id, t.name";
+    private static final String FROM = " from member m left outer join team t on m.team_id = t.team_id";
+
+    private static final Map<String, SortColumn> SORT_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        SORT_COLUMNS.put("id", new SortColumn("m.member_id", MemberTeamDto::getMemberId));
+        SORT_COLUMNS.put("memberId", SORT_COLUMNS.get("id"));
+        SORT_COLUMNS.put("username", new SortColumn("m.username", MemberTeamDto::getUsername));
+        SORT_COLUMNS.put("age", new SortColumn("m.age", MemberTeamDto::getAge));
+    }
+
+    private final String where;
+    private final List<Object> args = new ArrayList<>();
+    private final boolean teamFilter;
+
+    ShardQuery(MemberSearchCondition condition) {
+        List<String> predicates = new ArrayList<>();
+        if (hasText(condition.getUsername())) {
+            predicates.add("m.username = ?");
+            args.add(condition.getUsername());
+        }
+        teamFilter = hasText(condition.getTeamName());
+        if (teamFilter) {
+            predicates.add("t.name = ?");
+            args.add(condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            predicates.add("m.age >= ?");
+            args.add(condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            predicates.add("m.age <= ?");
+            args.add(condition.getAgeLoe());
+        }
+        where = predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+    }
+
+    String select(Sort sort, Long limit) {
+        StringBuilder sql = new StringBuilder(COLUMNS).append(FROM).append(where).append(" order by ");
+        for (Sort.Order order : sort) {
+            sql.append(column(order.getProperty()).sql)
+                .append(order.isAscending() ? " asc nulls first, " : " desc nulls last, ");
+        }
+        // 샤드끼리 합칠 때도 순서가 하나로 정해지도록 id 를 마지막 기준으로
+        sql.append("m.member_id asc");
+        if (limit != null) {
+            sql.append(" limit ").append(limit);
+        }
+        return sql.toString();
+    }
+
+    // 팀 조건이 없으면 team join 없이 member 만 센다
+    String count() {
+        return "select count(*) from member m"
+            + (teamFilter ? " left outer join team t on m.team_id = t.team_id" : "")
+            + where;
+    }
+
+    Object[] args() {
+        return args.toArray();
+    }
+
+    static Comparator<MemberTeamDto> comparator(Sort sort) {
+        Comparator<MemberTeamDto> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<MemberTeamDto> next = column(order.getProperty()).comparator(order.isAscending());
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<MemberTeamDto> byId = Comparator.comparing(MemberTeamDto::getMemberId);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private static SortColumn column(String property) {
+        SortColumn column = SORT_COLUMNS.get(property);
+        if (column == null) {
+            throw new UnsupportedSortException(Member.class, property, SORT_COLUMNS.keySet());
+        }
+        return column;
+    }
+
+    private static class SortColumn {
+        private final String sql;
+        private final Function<MemberTeamDto, ? extends Comparable<?>> key;
+
+        SortColumn(String sql, Function<MemberTeamDto, ? extends Comparable<?>> key) {
+            this.sql = sql;
+            this.key = key;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Comparator<MemberTeamDto> comparator(boolean ascending) {
+            Comparator<MemberTeamDto> comparator = (a, b) -> {
+                Comparable x = key.apply(a);
+                Comparable y = key.apply(b);
+                if (x == null) {
+                    return y == null ? 0 : -1;
+                }
+                return y == null ? 1 : x.compareTo(y);
+            };
+            return ascending ? comparator : comparator.reversed();
+        }
+    }
+}
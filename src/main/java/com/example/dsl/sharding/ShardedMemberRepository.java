@@ -0,0 +1,150 @@
+package com.example.dsl.sharding;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.dto.MemberTeamDto;
+
+/**
+ * member 를 여러 DB 에 나눠 담고, 검색은 모든 샤드에 동시에 보낸 뒤 합친다. (scatter-gather)
+ *
+ * - 페이징: 샤드마다 정렬해서 (offset + size) 건까지만 가져오고, 정렬 순서대로 합쳐서 offset 만큼 버린다
+ * - count: 샤드별 count 의 합
+ * - 쓰기: team 은 모든 샤드에, member 는 team_id 로 정한 샤드 하나에
+ *
+ * 샤드를 넘나드는 트랜잭션은 없다. team 복제는 merge 라서 실패하면 다시 실행하면 된다.
+ */
+public class ShardedMemberRepository {
+
+    private static final RowMapper<MemberTeamDto> ROW_MAPPER = (rs, rowNum) -> new MemberTeamDto(
+        rs.getLong(1),
+        rs.getString(2),
+        rs.getInt(3),
+        rs.getObject(4, Long.class),
+        rs.getString(5));
+
+    private final Shards shards;
+
+    public ShardedMemberRepository(Shards shards) {
+        this.shards = shards;
+    }
+
+    // team 은 0번 샤드 시퀀스로 id 를 정하고 모든 샤드에 같은 id 로 넣는다
+    public long saveTeam(String name) {
+        long teamId = nextSequence(shards.shard(0));
+        shards.scatter(jdbc -> jdbc.update(
+            "merge into team (team_id, name) key (team_id) values (?, ?)", teamId, name));
+        return teamId;
+    }
+
+    public long saveMember(String username, int age, Long teamId) {
+        int shard = shards.shardOfTeam(teamId);
+        JdbcTemplate jdbc = shards.shard(shard);
+        long memberId = shards.globalId(shard, nextSequence(jdbc));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.update("insert into member (member_id, username, age, team_id, created_date, last_modified_date)"
+            + " values (?, ?, ?, ?, ?, ?)", memberId, username, age, teamId, now, now);
+        return memberId;
+    }
+
+    public Optional<MemberTeamDto> findById(long memberId) {
+        List<MemberTeamDto> result = shards.shard(shards.shardOfMember(memberId)).query(
+            "select m.member_id, m.username, m.age, t.team_id, t.name"
+                + " from member m left outer join team t on m.team_id = t.team_id where m.member_id = ?",
+            ROW_MAPPER, memberId);
+        return result.stream().findFirst();
+    }
+
+    // 샤드 키 조건이 없으므로 모든 샤드에 실행하고 건수를 더한다
+    public int bulkAgePlus(int age) {
+        return shards.scatter(jdbc -> jdbc.update("update member set age = age + 1 where age >= ?", age))
+            .stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        ShardQuery query = new ShardQuery(condition);
+        String sql = query.select(Sort.unsorted(), null);
+        List<List<MemberTeamDto>> results = shards.scatter(jdbc -> jdbc.query(sql, ROW_MAPPER, query.args()));
+        return merge(results, ShardQuery.comparator(Sort.unsorted()), 0, Long.MAX_VALUE);
+    }
+
+    public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        ShardQuery query = new ShardQuery(condition);
+        Sort sort = pageable.getSort();
+        // 어느 샤드에 몰려 있을지 모르므로 샤드마다 앞에서부터 offset + size 건
+        Long limit = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : null;
+        String sql = query.select(sort, limit);
+        List<List<MemberTeamDto>> results = shards.scatter(jdbc -> jdbc.query(sql, ROW_MAPPER, query.args()));
+
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long size = pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE;
+        List<MemberTeamDto> content = merge(results, ShardQuery.comparator(sort), offset, size);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> shards.scatter(
+            jdbc -> jdbc.queryForObject(query.count(), Long.class, query.args()))
+            .stream().mapToLong(Long::longValue).sum());
+    }
+
+    // 샤드별로 정렬된 결과를 k-way merge
+    private static List<MemberTeamDto> merge(List<List<MemberTeamDto>> sortedResults,
+        Comparator<MemberTeamDto> comparator, long offset, long size) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> comparator.compare(a.current, b.current));
+        for (List<MemberTeamDto> result : sortedResults) {
+            Iterator<MemberTeamDto> iterator = result.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Cursor(iterator));
+            }
+        }
+
+        List<MemberTeamDto> content = new ArrayList<>();
+        long skipped = 0;
+        while (!heads.isEmpty() && content.size() < size) {
+            Cursor head = heads.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                content.add(head.current);
+            }
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return content;
+    }
+
+    private static long nextSequence(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("select next value for hibernate_sequence", Long.class);
+    }
+
+    private static class Cursor {
+        private final Iterator<MemberTeamDto> iterator;
+        private MemberTeamDto current;
+
+        Cursor(Iterator<MemberTeamDto> iterator) {
+            this.iterator = iterator;
+            this.current = iterator.next();
+        }
+
+        boolean advance() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            current = iterator.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.dsl.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * app.sharding.enabled=true 일 때만
+ * 샤드 DataSource 는 빈으로 등록하지 않는다. (기본 DataSource/JPA 자동 설정은 그대로)
+ *
+ * app.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public Shards shards(@Value("${app.sharding.urls}") List<String> urls,
+        @Value("${app.sharding.username:sa}") String username,
+        @Value("${app.sharding.password:}") String password,
+        @Value("${app.sharding.pool-size:10}") int poolSize) {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(urls.get(i))
+                .username(username)
+                .password(password)
+                .build();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSources.add(dataSource);
+        }
+        Shards shards = new Shards(dataSources, poolSize);
+        shards.migrate();
+        return shards;
+    }
+
+    @Bean
+    public ShardedMemberRepository shardedMemberRepository(Shards shards) {
+        return new ShardedMemberRepository(shards);
+    }
+}
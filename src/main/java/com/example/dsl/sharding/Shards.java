@@ -0,0 +1,189 @@
+package com.example.dsl.sharding;
+
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * member 를 나눠 담는 DB 목록
+ * 샤드 키는 team_id (팀이 없는 member 는 0번 샤드), team 은 모든 샤드에 복제한다.
+ * member id 는 (샤드 시퀀스 * 샤드 수 + 샤드 번호) 라서 id 만으로 샤드를 알 수 있다.
+ */
+public class Shards implements Closeable {
+
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> jdbcTemplates;
+    // 요청 하나가 샤드 수 만큼 동시에 쿼리를 보낸다
+    private final ExecutorService executor;
+
+    public Shards(List<DataSource> dataSources, int threadsPerShard) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.dataSources = Collections.unmodifiableList(new ArrayList<>(dataSources));
+        List<JdbcTemplate> templates = new ArrayList<>();
+        for (DataSource dataSource : dataSources) {
+            templates.add(new JdbcTemplate(dataSource));
+        }
+        this.jdbcTemplates = Collections.unmodifiableList(templates);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(dataSources.size() * threadsPerShard, runnable -> {
+            Thread thread = new Thread(runnable, "shard-query-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 샤드마다 같은 스키마 (db/migration)
+    public void migrate() {
+        for (DataSource dataSource : dataSources) {
+            Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+        }
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    public JdbcTemplate shard(int index) {
+        return jdbcTemplates.get(index);
+    }
+
+    public List<JdbcTemplate> all() {
+        return jdbcTemplates;
+    }
+
+    /**
+     * 모든 샤드에 동시에 실행하고 결과를 샤드 순서대로 돌려준다.
+     * 하나라도 실패하면 나머지 샤드에서 실행 중인 쿼리는 Statement.cancel 로 멈추고 처음 실패한 예외를 던진다.
+     * (CompletableFuture.cancel 은 실행 중인 작업을 멈추지 않으므로 쿼리를 직접 취소한다)
+     */
+    public <T> List<T> scatter(Function<JdbcTemplate, T> work) {
+        Cancellation cancellation = new Cancellation();
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (DataSource dataSource : dataSources) {
+            JdbcTemplate jdbc = new CancellableJdbcTemplate(dataSource, cancellation);
+            // whenComplete 쪽 future 를 기다려야 fail 이 끝난 뒤에 join 이 풀린다
+            futures.add(CompletableFuture.supplyAsync(() -> work.apply(jdbc), executor)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        cancellation.fail(error);
+                    }
+                }));
+        }
+        try {
+            // 취소된 샤드도 끝날 때까지 기다려서 커넥션을 돌려받은 뒤에 던진다
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = cancellation.failure();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    public int shardOfTeam(Long teamId) {
+        return teamId == null ? 0 : (int) Math.floorMod(teamId, (long) size());
+    }
+
+    public int shardOfMember(long memberId) {
+        return (int) Math.floorMod(memberId, (long) size());
+    }
+
+    // 샤드 안에서만 유일한 시퀀스 값을 전체에서 유일한 id 로
+    public long globalId(int shard, long localSequence) {
+        return localSequence * size() + shard;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof Closeable) {
+                try {
+                    ((Closeable) dataSource).close();
+                } catch (Exception ignored) {
+                    // 종료 중
+                }
+            }
+        }
+    }
+
+    // scatter 한 번에 쓰는 취소 상태: 처음 실패한 예외와 실행 중인 statement
+    private static final class Cancellation {
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+
+        Throwable failure() {
+            return failure.get();
+        }
+
+        void fail(Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            if (!failure.compareAndSet(null, cause)) {
+                return;
+            }
+            for (Statement statement : running) {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    // 이미 끝났거나 닫힌 statement
+                }
+            }
+        }
+
+        // 등록한 다음 check 하므로 fail 과 엇갈려도 빠지는 statement 가 없다
+        void register(Statement statement) {
+            running.add(statement);
+            if (failure.get() != null) {
+                throw new CancellationException("Shard query cancelled");
+            }
+        }
+    }
+
+    // 만드는 statement 마다 Cancellation 에 등록한다
+    private static final class CancellableJdbcTemplate extends JdbcTemplate {
+        private final Cancellation cancellation;
+
+        CancellableJdbcTemplate(DataSource dataSource, Cancellation cancellation) {
+            super(dataSource);
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        protected void applyStatementSettings(Statement statement) throws SQLException {
+            super.applyStatementSettings(statement);
+            cancellation.register(statement);
+        }
+    }
+}
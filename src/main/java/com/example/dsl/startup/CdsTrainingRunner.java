@@ -0,0 +1,110 @@
+package com.example.dsl.startup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.example.dsl.entity.Member;
+import com.example.dsl.repository.MemberRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * CDS(class data sharing) 아카이브를 만들기 위한 학습 실행 (./gradlew cdsArchive)
+ * 애플리케이션이 뜨면 주요 API 를 한 번씩 호출해서
+ * hibernate, querydsl Q 클래스, MVC/jackson 경로의 클래스를 모두 로딩한 다음 종료한다.
+ * JVM 이 종료되면서 -XX:ArchiveClassesAtExit 로 로딩된 클래스를 아카이브에 덤프한다.
+ * 응답이 2xx 가 아니면 에러 경로를 학습한 것이므로 0 이 아닌 코드로 종료해서 태스크를 실패시킨다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cds.training", havingValue = "true")
+public class CdsTrainingRunner {
+
+    private static final List<String> TRAINING_PATHS = Arrays.asList(
+        "/hello",
+        "/v1/members?teamName=teamA&ageGoe=10",
+        "/v2/members?page=0&size=5",
+        "/v2/members/slice?page=1&size=5",
+        "/v3/members?page=0&size=5&count=CAPPED",
+        "/v3/members?page=2&size=5&sort=age,desc&deferred=true",
+        "/members?page=0&size=3&sort=id,desc&sort=username,desc",
+        "/members_page",
+        "/actuator/health"
+    );
+    // id 는 시퀀스를 팀과 같이 쓰므로 고정값 대신 실제 있는 member 로 호출한다
+    private static final int LOOKUP_IDS = 3;
+
+    private final ConfigurableApplicationContext context;
+    private final Environment environment;
+    private final MemberRepository memberRepository;
+
+    public CdsTrainingRunner(ConfigurableApplicationContext context, Environment environment,
+        MemberRepository memberRepository) {
+        this.context = context;
+        this.environment = environment;
+        this.memberRepository = memberRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void train() {
+        String port = environment.getProperty("local.server.port", "8080");
+        List<String> failed = new ArrayList<>();
+        List<String> paths = new ArrayList<>(TRAINING_PATHS);
+        List<Long> ids = memberRepository.findAll(PageRequest.of(0, LOOKUP_IDS, Sort.by("id")))
+            .map(Member::getId)
+            .getContent();
+        if (ids.isEmpty()) {
+            failed.add("no seeded members for /members/{id}");
+        } else {
+            paths.add("/members/" + ids.get(0));
+            paths.add("/members?ids=" + ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+
+        for (String path : paths) {
+            int status = call("http://localhost:" + port + path);
+            log.info("CDS training GET {} -> {}", path, status);
+            if (status < 200 || status >= 300) {
+                failed.add(path + " -> " + status);
+            }
+        }
+        if (!failed.isEmpty()) {
+            log.error("CDS training failed: {}", failed);
+            System.exit(SpringApplication.exit(context, () -> 1));
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private int call(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            int status = connection.getResponseCode();
+            InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (body != null) {
+                while (body.read() != -1) {
+                    // 응답 직렬화 경로까지 다 타도록 끝까지 읽는다
+                }
+                body.close();
+            }
+            return status;
+        } catch (IOException e) {
+            log.warn("CDS training request failed: {}", url, e);
+            return -1;
+        }
+    }
+}
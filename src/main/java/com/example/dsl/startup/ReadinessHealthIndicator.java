@@ -0,0 +1,30 @@
+package com.example.dsl.startup;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/health/readiness
+ * 로드밸런서는 UP 이 된 다음부터 트래픽을 보낸다.
+ */
+@Component("readiness")
+public class ReadinessHealthIndicator extends AbstractHealthIndicator {
+
+    private final StartupReadiness startupReadiness;
+
+    public ReadinessHealthIndicator(StartupReadiness startupReadiness) {
+        this.startupReadiness = startupReadiness;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (startupReadiness.isReady()) {
+            builder.up();
+        } else {
+            builder.outOfService()
+                .withDetail("pending", startupReadiness.getPendingPhases());
+        }
+        builder.withDetail("phasesMillis", startupReadiness.getPhaseMillis());
+    }
+}
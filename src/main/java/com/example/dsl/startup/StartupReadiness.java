@@ -0,0 +1,107 @@
+package com.example.dsl.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 기동 단계별 시간 기록 + readiness
+ * 컨텍스트가 다 떴어도(ApplicationReadyEvent) 진행 중인 작업(데이터 초기화, 캐시 워밍업 등)이
+ * 남아 있으면 ready 가 아니다. -> /actuator/health/readiness 가 OUT_OF_SERVICE(503)
+ *
+ * 사용법
+ *   StartupTask task = startupReadiness.begin("seed");
+ *   ... (다른 스레드여도 됨)
+ *   task.end();
+ */
+@Slf4j
+@Component
+public class StartupReadiness {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Long> phaseMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Set<StartupTask> pending = ConcurrentHashMap.newKeySet();
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    private volatile boolean contextReady;
+    private volatile boolean ready;
+
+    public StartupReadiness(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public StartupTask begin(String phase) {
+        StartupTask task = new StartupTask(this, phase, System.nanoTime());
+        pending.add(task);
+        return task;
+    }
+
+    void end(StartupTask task, long elapsedNanos) {
+        if (!pending.remove(task)) {
+            return;
+        }
+        record(task.getPhase(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        checkReady();
+    }
+
+    @EventListener
+    public void onStarted(ApplicationStartedEvent event) {
+        record("context-started", System.currentTimeMillis() - jvmStartMillis);
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        record("application-ready", System.currentTimeMillis() - jvmStartMillis);
+        contextReady = true;
+        checkReady();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Map<String, Long> getPhaseMillis() {
+        synchronized (phaseMillis) {
+            return new LinkedHashMap<>(phaseMillis);
+        }
+    }
+
+    public Set<String> getPendingPhases() {
+        Set<String> phases = new TreeSet<>();
+        for (StartupTask task : pending) {
+            phases.add(task.getPhase());
+        }
+        return phases;
+    }
+
+    private void record(String phase, long millis) {
+        phaseMillis.put(phase, millis);
+        Timer.builder("startup.phase")
+            .tag("phase", phase)
+            .register(meterRegistry)
+            .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void checkReady() {
+        if (ready || !contextReady || !pending.isEmpty()) {
+            return;
+        }
+        ready = true;
+        log.info("Ready to serve {} ms after JVM start, phases(ms)={}",
+            System.currentTimeMillis() - jvmStartMillis, getPhaseMillis());
+    }
+}
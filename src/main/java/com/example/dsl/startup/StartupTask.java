@@ -0,0 +1,25 @@
+package com.example.dsl.startup;
+
+import lombok.Getter;
+
+/**
+ * readiness 를 막고 있는 기동 작업 하나
+ * end() 는 여러 번 불러도 한 번만 기록된다.
+ */
+public class StartupTask {
+
+    private final StartupReadiness readiness;
+    @Getter
+    private final String phase;
+    private final long startNanos;
+
+    StartupTask(StartupReadiness readiness, String phase, long startNanos) {
+        this.readiness = readiness;
+        this.phase = phase;
+        this.startNanos = startNanos;
+    }
+
+    public void end() {
+        readiness.end(this, System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.dsl.startup;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.repository.MemberRepository;
+import com.example.dsl.repository.MemberSearchQuery;
+import com.example.dsl.repository.support.CountMode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ready 전에 검색 API 가 쓰는 경로를 미리 돌려서 JIT, hibernate 쿼리 플랜 캐시, querydsl 직렬화,
+ * jackson serializer(MemberTeamDto, Page)를 데워둔다.
+ *
+ * 한 라운드 = 조건 조합 16가지 x (/v1, /v2, /v3, /v3 deferred, slice 조회 + JSON 직렬화), 읽기 전용 트랜잭션에서 실행
+ * 최근 window 라운드의 시간 차이가 tolerance 안으로 들어오면(안정) 또는 max-duration 이 지나면 멈춘다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class WarmupRunner {
+
+    public enum StopReason {
+        STABLE, TIME_BUDGET, MAX_ROUNDS
+    }
+
+    private final MemberSearchQuery memberSearchQuery;
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+    private final StartupReadiness startupReadiness;
+    private final TransactionTemplate readOnly;
+    private final Duration maxDuration;
+    private final int minRounds;
+    private final int maxRounds;
+    private final int window;
+    private final double tolerance;
+
+    public WarmupRunner(MemberSearchQuery memberSearchQuery, MemberRepository memberRepository,
+        ObjectMapper objectMapper, StartupReadiness startupReadiness, PlatformTransactionManager transactionManager,
+        @Value("${app.warmup.max-duration:10s}") Duration maxDuration,
+        @Value("${app.warmup.min-rounds:5}") int minRounds,
+        @Value("${app.warmup.max-rounds:1000}") int maxRounds,
+        @Value("${app.warmup.window:5}") int window,
+        @Value("${app.warmup.tolerance:0.1}") double tolerance) {
+        this.memberSearchQuery = memberSearchQuery;
+        this.memberRepository = memberRepository;
+        this.objectMapper = objectMapper;
+        this.startupReadiness = startupReadiness;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.maxDuration = maxDuration;
+        this.minRounds = Math.max(minRounds, window);
+        this.maxRounds = maxRounds;
+        this.window = window;
+        this.tolerance = tolerance;
+    }
+
+    // ApplicationReadyEvent 전이라 끝날 때까지 ready 가 되지 않는다
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        StartupTask task = startupReadiness.begin("warmup");
+        try {
+            Result result = run();
+            log.info("Warmup finished: {}", result);
+        } catch (RuntimeException e) {
+            log.warn("Warmup failed, starting without it", e);
+        } finally {
+            task.end();
+        }
+    }
+
+    public Result run() {
+        List<MemberSearchCondition> conditions = conditionShapes();
+        Deque<Long> recent = new ArrayDeque<>(window);
+        List<Long> roundNanos = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        StopReason reason = StopReason.MAX_ROUNDS;
+        while (roundNanos.size() < maxRounds) {
+            long roundStart = System.nanoTime();
+            readOnly.executeWithoutResult(status -> conditions.forEach(this::exercise));
+            long elapsed = System.nanoTime() - roundStart;
+
+            roundNanos.add(elapsed);
+            if (recent.size() == window) {
+                recent.removeFirst();
+            }
+            recent.addLast(elapsed);
+
+            if (roundNanos.size() >= minRounds && isStable(recent)) {
+                reason = StopReason.STABLE;
+                break;
+            }
+            if (System.nanoTime() >= deadline) {
+                reason = StopReason.TIME_BUDGET;
+                break;
+            }
+        }
+        return new Result(reason, roundNanos.size(), toMillis(roundNanos.get(0)),
+            toMillis(roundNanos.get(roundNanos.size() - 1)), toMillis(Collections.min(roundNanos)),
+            toMillis(System.nanoTime() - start));
+    }
+
+    private void exercise(MemberSearchCondition condition) {
+        serialize(memberSearchQuery.search(condition));
+        serialize(memberRepository.searchPageSimple(condition, PageRequest.of(0, 20)));
+        serialize(memberRepository.searchPageComplex(condition,
+            PageRequest.of(1, 20, Sort.by("username")), CountMode.EXACT));
+        serialize(memberRepository.searchPageDeferred(condition,
+            PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "age")), CountMode.CAPPED));
+        serialize(memberRepository.searchSlice(condition, PageRequest.of(0, 20)));
+    }
+
+    private void serialize(Object response) {
+        try {
+            objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize warmup response", e);
+        }
+    }
+
+    private boolean isStable(Deque<Long> recent) {
+        if (recent.size() < window) {
+            return false;
+        }
+        long min = Collections.min(recent);
+        long max = Collections.max(recent);
+        return max - min <= min * tolerance;
+    }
+
+    // 조건마다 where 절이 달라져서 쿼리 플랜도 따로 생긴다 -> 네 조건의 유무 조합 전부
+    private static List<MemberSearchCondition> conditionShapes() {
+        List<MemberSearchCondition> conditions = new ArrayList<>();
+        for (int mask = 0; mask < 16; mask++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setUsername((mask & 1) != 0 ? "member1" : null);
+            condition.setTeamName((mask & 2) != 0 ? "teamA" : null);
+            condition.setAgeGoe((mask & 4) != 0 ? 10 : null);
+            condition.setAgeLoe((mask & 8) != 0 ? 40 : null);
+            conditions.add(condition);
+        }
+        return conditions;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class Result {
+        private final StopReason reason;
+        private final int rounds;
+        private final long firstRoundMillis;
+        private final long lastRoundMillis;
+        private final long fastestRoundMillis;
+        private final long elapsedMillis;
+    }
+}
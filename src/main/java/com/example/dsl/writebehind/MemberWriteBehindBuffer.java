@@ -0,0 +1,310 @@
+package com.example.dsl.writebehind;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dsl.changelog.ChangeLog;
+import com.example.dsl.changelog.ChangeOperation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 같은 member 의 age/team 변경이 짧은 시간에 계속 들어올 때 (외부 연동)
+ * 변경마다 트랜잭션, dirty checking, auditing 을 하지 않고 member 별로 마지막 값만 모아 두었다가
+ * 주기적으로(flush-interval) 또는 쌓인 건수가 max-pending 을 넘으면 JDBC batch update 한 번으로 쓴다.
+ *
+ * 보장
+ * - 순서: 같은 member 의 변경은 들어온 순서대로 반영된다 (flush 는 한 번에 하나씩). member 사이의 순서는 보장하지 않는다.
+ * - 내구성(durability):
+ *   ASYNC          바로 반환, 장애 시 마지막 flush 이후 변경은 유실될 수 있다
+ *   WAIT_FOR_FLUSH 다음 flush 에 커밋될 때까지 기다린다 (여러 변경이 커밋 한 번을 나눠 쓴다)
+ *   어느 쪽이든 반환된 future 로 반영 시점을 알 수 있다.
+ * - 종료 시 남은 변경을 flush 한다.
+ * - 실패: batch 가 실패하면 member 별로 따로 다시 쓴다. 그래도 실패한 member 만 다음 flush 로 넘기고
+ *   max-attempts 번 실패하면 dead letter 로 옮긴다 (기다리던 future 는 그때 실패). 나머지 member 는 정상 반영된다.
+ * - 읽기: MemberRepository 등으로 Member 엔티티를 읽으면 버퍼의 값이 덮어씌워진다 (MemberWriteBehindListener).
+ *   dto 조회(search 등)는 DB 값 그대로다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.write-behind.enabled", havingValue = "true")
+public class MemberWriteBehindBuffer {
+
+    public enum Durability {
+        ASYNC, WAIT_FOR_FLUSH
+    }
+
+    private static final String UPDATE_SQL = "update member set"
+        + " age = case when ? then ? else age end,"
+        + " team_id = case when ? then ? else team_id end,"
+        + " last_modified_date = ?,"
+        + " last_modified_by = ?"
+        + " where member_id = ?";
+    private static final String MODIFIED_BY = "write-behind";
+
+    private final Map<Long, PendingMemberUpdate> pending = new ConcurrentHashMap<>();
+    // flush 중인 변경 (커밋 전까지는 DB 에도 없고 pending 에서도 빠져 있으므로 읽기용으로 따로 둔다)
+    private volatile Map<Long, PendingMemberUpdate> inFlight = Collections.emptyMap();
+    // max-attempts 번 실패해서 포기한 변경 (member 별 마지막 것)
+    private final Map<Long, PendingMemberUpdate> deadLetters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // maxPending 을 넘겨서 요청한 flush 가 아직 시작 전인지
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ChangeLog> changeLog;
+    private final ScheduledExecutorService scheduler;
+    private final Durability durability;
+    private final int maxPending;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final Counter enqueued;
+    private final Counter coalesced;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter deadLettered;
+
+    public MemberWriteBehindBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+        ObjectProvider<ChangeLog> changeLog, MeterRegistry meterRegistry,
+        @Value("${app.write-behind.durability:ASYNC}") Durability durability,
+        @Value("${app.write-behind.flush-interval:1s}") Duration flushInterval,
+        @Value("${app.write-behind.max-pending:1000}") int maxPending,
+        @Value("${app.write-behind.batch-size:500}") int batchSize,
+        @Value("${app.write-behind.max-attempts:3}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeLog = changeLog;
+        this.durability = durability;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+
+        this.enqueued = meterRegistry.counter("member.write-behind.enqueued");
+        this.coalesced = meterRegistry.counter("member.write-behind.coalesced");
+        this.written = meterRegistry.counter("member.write-behind.written");
+        this.failed = meterRegistry.counter("member.write-behind.failed");
+        this.deadLettered = meterRegistry.counter("member.write-behind.dead-lettered");
+        Gauge.builder("member.write-behind.pending", pending, Map::size).register(meterRegistry);
+        Gauge.builder("member.write-behind.dead-letters", deadLetters, Map::size).register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "member-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<Void> updateAge(long memberId, int age) {
+        return enqueue(memberId, update -> update.withAge(age));
+    }
+
+    public CompletableFuture<Void> changeTeam(long memberId, Long teamId) {
+        return enqueue(memberId, update -> update.withTeam(teamId));
+    }
+
+    /**
+     * 아직 DB 에 반영되지 않은 변경 (flush 중인 것 포함)
+     */
+    public Optional<PendingMemberUpdate> pendingFor(long memberId) {
+        // flush 가 inFlight 에 먼저 넣고 pending 에서 빼므로 이 순서로 읽으면 어느 한쪽에서는 보인다
+        PendingMemberUpdate newer = pending.get(memberId);
+        PendingMemberUpdate flushing = inFlight.get(memberId);
+        if (newer != null && flushing != null) {
+            return Optional.of(flushing.overriddenBy(newer));
+        }
+        return Optional.ofNullable(newer != null ? newer : flushing);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * max-attempts 번 쓰기에 실패해서 버린 변경
+     */
+    public Map<Long, PendingMemberUpdate> deadLetters() {
+        return Collections.unmodifiableMap(deadLetters);
+    }
+
+    /**
+     * 쌓인 변경을 한 트랜잭션, batch update 로 쓴다.
+     * batch 가 실패하면 member 별 트랜잭션으로 다시 써서 실패한 member 만 다시 넣는다 (더 새로운 값이 우선).
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            // 읽는 쪽에서 빈틈이 없도록 inFlight 를 먼저 걸고 나서 pending 에서 옮긴다
+            Map<Long, PendingMemberUpdate> batch = new ConcurrentHashMap<>();
+            inFlight = batch;
+            for (Long memberId : pending.keySet()) {
+                pending.computeIfPresent(memberId, (id, update) -> {
+                    batch.put(id, update);
+                    return null;
+                });
+            }
+            if (batch.isEmpty()) {
+                inFlight = Collections.emptyMap();
+                return;
+            }
+            List<PendingMemberUpdate> updates = new ArrayList<>(batch.values());
+            List<PendingMemberUpdate> succeeded;
+            try {
+                write(updates);
+                succeeded = updates;
+            } catch (RuntimeException e) {
+                log.warn("Write-behind batch of {} members failed, retrying one by one", updates.size(), e);
+                succeeded = writeOneByOne(updates);
+            } finally {
+                inFlight = Collections.emptyMap();
+            }
+            written.increment(succeeded.size());
+            // JDBC 로 썼으므로 hibernate 이벤트가 없다 -> 직접 남긴다
+            List<PendingMemberUpdate> committed = succeeded;
+            changeLog.ifAvailable(changes -> committed.forEach(update -> changes.append(ChangeOperation.UPDATE,
+                "Member", update.getMemberId(), changedProperties(update))));
+            committed.forEach(update -> update.getWaiters().forEach(waiter -> waiter.complete(null)));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        flush();
+    }
+
+    private CompletableFuture<Void> enqueue(long memberId, UnaryOperator<PendingMemberUpdate> change) {
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        pending.compute(memberId, (id, update) -> {
+            if (update == null) {
+                update = PendingMemberUpdate.empty(id);
+            } else {
+                coalesced.increment();
+            }
+            return change.apply(update).withWaiter(flushed);
+        });
+        enqueued.increment();
+
+        if (pending.size() >= maxPending) {
+            requestFlush();
+        }
+        if (durability == Durability.WAIT_FOR_FLUSH) {
+            try {
+                flushed.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        return flushed;
+    }
+
+    // 쌓인 만큼 flush 를 앞당긴다. 이미 요청해 둔 flush 가 시작 전이면 또 넣지 않는다
+    // shutdown 뒤에는 scheduler 에 넣을 수 없다 (shutdown 이 마지막으로 flush 한다)
+    private void requestFlush() {
+        if (scheduler.isShutdown() || !flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        } catch (RejectedExecutionException e) {
+            flushRequested.set(false);
+        }
+    }
+
+    /**
+     * 한 member 의 잘못된 값(없는 team 등) 때문에 나머지까지 막히지 않도록 member 마다 트랜잭션을 따로 쓴다.
+     * 실패한 것은 inFlight 가 풀리기 전에 pending 으로 돌려 놓는다.
+     */
+    private List<PendingMemberUpdate> writeOneByOne(List<PendingMemberUpdate> updates) {
+        List<PendingMemberUpdate> succeeded = new ArrayList<>(updates.size());
+        for (PendingMemberUpdate update : updates) {
+            try {
+                write(Collections.singletonList(update));
+                succeeded.add(update);
+            } catch (RuntimeException e) {
+                failed.increment();
+                retryOrDeadLetter(update.withFailedAttempt(), e);
+            }
+        }
+        return succeeded;
+    }
+
+    private void retryOrDeadLetter(PendingMemberUpdate update, RuntimeException cause) {
+        if (update.getAttempts() < maxAttempts) {
+            log.warn("Write-behind update of member {} failed ({}/{}), will retry",
+                update.getMemberId(), update.getAttempts(), maxAttempts, cause);
+            pending.merge(update.getMemberId(), update, (newer, retry) -> retry.overriddenBy(newer));
+            return;
+        }
+        log.error("Write-behind update of member {} failed {} times, moving to dead letters",
+            update.getMemberId(), update.getAttempts(), cause);
+        deadLetters.put(update.getMemberId(), update.withoutWaiters());
+        deadLettered.increment();
+        update.getWaiters().forEach(waiter -> waiter.completeExceptionally(cause));
+    }
+
+    private void write(List<PendingMemberUpdate> updates) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates, batchSize, (ps, update) -> {
+                ps.setBoolean(1, update.getAge() != null);
+                ps.setObject(2, update.getAge());
+                ps.setBoolean(3, update.isTeamChanged());
+                ps.setObject(4, update.getTeamId());
+                ps.setTimestamp(5, now);
+                ps.setString(6, MODIFIED_BY);
+                ps.setLong(7, update.getMemberId());
+            }));
+    }
+
+    private static String changedProperties(PendingMemberUpdate update) {
+        if (update.getAge() != null && update.isTeamChanged()) {
+            return "age,team";
+        }
+        return update.getAge() != null ? "age" : "team";
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush failed", e);
+        }
+    }
+}
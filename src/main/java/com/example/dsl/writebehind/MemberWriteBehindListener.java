@@ -0,0 +1,44 @@
+package com.example.dsl.writebehind;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PostLoad;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.example.dsl.entity.Member;
+import com.example.dsl.entity.Team;
+
+/**
+ * Member 를 읽을 때 write-behind 버퍼에 남아 있는 값을 덮어씌운다. (버퍼가 꺼져 있으면 아무것도 안 함)
+ * 읽기-쓰기 트랜잭션이면 덮어쓴 값이 dirty checking 으로 한 번 더 쓰일 수 있는데, 버퍼와 같은 값이라 결과는 같다.
+ */
+public class MemberWriteBehindListener {
+
+    // EntityManagerFactory 를 만드는 중에 생성되므로 실제 빈은 필요할 때 꺼낸다
+    private final ObjectProvider<MemberWriteBehindBuffer> buffer;
+    private final ObjectProvider<EntityManager> entityManager;
+
+    public MemberWriteBehindListener(ObjectProvider<MemberWriteBehindBuffer> buffer,
+        ObjectProvider<EntityManager> entityManager) {
+        this.buffer = buffer;
+        this.entityManager = entityManager;
+    }
+
+    @PostLoad
+    public void overlay(Member member) {
+        MemberWriteBehindBuffer writeBehind = buffer.getIfAvailable();
+        if (writeBehind == null) {
+            return;
+        }
+        writeBehind.pendingFor(member.getId()).ifPresent(update -> {
+            if (update.getAge() != null) {
+                member.setAge(update.getAge());
+            }
+            if (update.isTeamChanged()) {
+                // 조회 없이 프록시만
+                member.setTeam(update.getTeamId() == null
+                    ? null : entityManager.getObject().getReference(Team.class, update.getTeamId()));
+            }
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.dsl.writebehind;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import lombok.Getter;
+
+/**
+ * 아직 DB 에 쓰지 않은 member 한 명의 변경 (같은 member 의 변경은 나중 값으로 합쳐진다)
+ * 버퍼에 있는 동안 다른 스레드가 읽으므로 변경할 때마다 새 객체를 만든다.
+ */
+@Getter
+public class PendingMemberUpdate {
+
+    private final long memberId;
+    private final Integer age;
+    private final boolean teamChanged;
+    private final Long teamId;
+    // 쓰기에 실패한 횟수 (max-attempts 가 되면 dead letter)
+    private final int attempts;
+    // 이 변경이 DB 에 반영되면 완료되는 future 들
+    private final List<CompletableFuture<Void>> waiters;
+
+    private PendingMemberUpdate(long memberId, Integer age, boolean teamChanged, Long teamId, int attempts,
+        List<CompletableFuture<Void>> waiters) {
+        this.memberId = memberId;
+        this.age = age;
+        this.teamChanged = teamChanged;
+        this.teamId = teamId;
+        this.attempts = attempts;
+        this.waiters = waiters;
+    }
+
+    static PendingMemberUpdate empty(long memberId) {
+        return new PendingMemberUpdate(memberId, null, false, null, 0, Collections.emptyList());
+    }
+
+    PendingMemberUpdate withAge(int age) {
+        return new PendingMemberUpdate(memberId, age, teamChanged, teamId, attempts, waiters);
+    }
+
+    PendingMemberUpdate withTeam(Long teamId) {
+        return new PendingMemberUpdate(memberId, age, true, teamId, attempts, waiters);
+    }
+
+    PendingMemberUpdate withWaiter(CompletableFuture<Void> waiter) {
+        List<CompletableFuture<Void>> newWaiters = new ArrayList<>(waiters.size() + 1);
+        newWaiters.addAll(waiters);
+        newWaiters.add(waiter);
+        return new PendingMemberUpdate(memberId, age, teamChanged, teamId, attempts, newWaiters);
+    }
+
+    // 쓰기에 실패해서 다시 넣을 때, flush 중에 읽을 때: 그 사이 들어온 newer 의 값이 우선
+    PendingMemberUpdate overriddenBy(PendingMemberUpdate newer) {
+        List<CompletableFuture<Void>> allWaiters = new ArrayList<>(waiters.size() + newer.waiters.size());
+        allWaiters.addAll(waiters);
+        allWaiters.addAll(newer.waiters);
+        return new PendingMemberUpdate(memberId,
+            newer.age != null ? newer.age : age,
+            teamChanged || newer.teamChanged,
+            newer.teamChanged ? newer.teamId : teamId,
+            attempts,
+            allWaiters);
+    }
+
+    PendingMemberUpdate withFailedAttempt() {
+        return new PendingMemberUpdate(memberId, age, teamChanged, teamId, attempts + 1, waiters);
+    }
+
+    PendingMemberUpdate withoutWaiters() {
+        return new PendingMemberUpdate(memberId, age, teamChanged, teamId, attempts, Collections.emptyList());
+    }
+}
@@ -0,0 +1,41 @@
+-- hibernate ddl-auto: create 로 만들어지던 스키마와 동일
+-- 정렬/검색에 쓰는 컬럼(username, age)과 team_id 에는 인덱스를 추가
+
+create sequence hibernate_sequence start with 1 increment by 1;
+
+create table hello (
+    id bigint not null,
+    primary key (id)
+);
+
+create table item (
+    id varchar(255) not null,
+    created_date timestamp,
+    primary key (id)
+);
+
+create table team (
+    team_id bigint not null,
+    name varchar(255),
+    primary key (team_id)
+);
+
+create table member (
+    member_id bigint not null,
+    created_date timestamp,
+    last_modified_date timestamp,
+    created_by varchar(255),
+    last_modified_by varchar(255),
+    age integer not null,
+    username varchar(255),
+    team_id bigint,
+    primary key (member_id)
+);
+
+alter table member
+    add constraint fk_member_team foreign key (team_id) references team;
+
+create index idx_member_team_id on member (team_id);
+create index idx_member_username on member (username);
+create index idx_member_age on member (age);
+create index idx_team_name on team (name);
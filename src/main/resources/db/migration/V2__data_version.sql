@@ -0,0 +1,7 @@
+-- 캐시 스냅샷이 복원할 때 데이터가 바뀌었는지 확인하는 표시 (DataVersion)
+
+create table data_version (
+    name varchar(255) not null,
+    token varchar(255),
+    primary key (name)
+);
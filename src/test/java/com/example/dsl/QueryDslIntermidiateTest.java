@@ -11,6 +11,7 @@ import org.springframework.test.annotation.Commit;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.dsl.dto.MemberDto;
+import com.example.dsl.dto.MemberDtoProjection;
 import com.example.dsl.dto.MemberDtoQP;
 import com.example.dsl.dto.QMemberDtoQP;
 import com.example.dsl.dto.UserDto;
@@ -29,6 +30,8 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 
 
 import static com.example.dsl.entity.QMember.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest
 @Transactional
@@ -210,6 +213,24 @@ public class QueryDslIntermidiateTest {
         }
     }
 
+    @Test
+    public void findDtoByRowProjection() throws Exception {
+        // @RowProjection 으로 생성된 MemberDtoProjection
+        // QueryProjection 처럼 타입을 컴파일 단계에서 맞춰주고, row 마다 reflection 없이 생성자를 바로 호출함
+        // bean/fields 는 row 마다 setter/field 를 reflection 으로 찾아서 넣는다
+        List<MemberDto> result = queryFactory
+            .select(MemberDtoProjection.of(member.username, member.age))
+            .from(member)
+            .orderBy(member.username.asc())
+            .fetch();
+
+        assertThat(result).extracting("username", "age").containsExactly(
+            tuple("member1", 10),
+            tuple("member2", 20),
+            tuple("member3", 30),
+            tuple("member4", 40));
+    }
+
     // 동적쿼리 방법1
     @Test
     public void boolean_builder() throws Exception {
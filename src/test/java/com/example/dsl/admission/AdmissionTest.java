@@ -0,0 +1,162 @@
+package com.example.dsl.admission;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdmissionTest {
+
+    @Autowired
+    CostClassifier classifier;
+
+    @Autowired
+    AdmissionFilter admissionFilter;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void classify() {
+        assertThat(classifier.classify(request("/members/1"))).isEqualTo(CostClass.CHEAP);
+        assertThat(classifier.classify(request("/members", "ids", "1,2,3"))).isEqualTo(CostClass.CHEAP);
+        // ids 를 여러 번 나눠 보내도 합쳐서 센다 (cheap-lookup-ids: 100)
+        assertThat(classifier.classify(request("/members", "ids", "1,2", "ids", "3"))).isEqualTo(CostClass.CHEAP);
+        assertThat(classifier.classify(request("/members", idsParams(101)))).isEqualTo(CostClass.STANDARD);
+        assertThat(classifier.classify(request("/members_page"))).isEqualTo(CostClass.EXPENSIVE);
+
+        // 조건 없는 전체 조회 / count
+        assertThat(classifier.classify(request("/v1/members"))).isEqualTo(CostClass.EXPENSIVE);
+        assertThat(classifier.classify(request("/v2/members"))).isEqualTo(CostClass.EXPENSIVE);
+        assertThat(classifier.classify(request("/v3/members"))).isEqualTo(CostClass.EXPENSIVE);
+
+        // 선택적인 조건, count 없음
+        assertThat(classifier.classify(request("/v1/members", "username", "member1"))).isEqualTo(CostClass.STANDARD);
+        assertThat(classifier.classify(request("/v2/members", "teamName", "teamA"))).isEqualTo(CostClass.STANDARD);
+        assertThat(classifier.classify(request("/v2/members/slice"))).isEqualTo(CostClass.STANDARD);
+        assertThat(classifier.classify(request("/v3/members", "count", "NONE"))).isEqualTo(CostClass.STANDARD);
+
+        // 큰 페이지
+        assertThat(classifier.classify(request("/v2/members/slice", "size", "500"))).isEqualTo(CostClass.EXPENSIVE);
+
+        // member API 가 아니면 제한하지 않음
+        assertThat(classifier.classify(request("/hello"))).isNull();
+        assertThat(classifier.classify(request("/v4/members"))).isNull();
+    }
+
+    @Test
+    public void queueThenShed() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(limits(1, 1, 1, 1, Duration.ofSeconds(1)), 2.0);
+        assertThat(bulkhead.tryAcquire(0)).isTrue();
+        // 자리가 없고 기다리지 않음
+        assertThat(bulkhead.tryAcquire(0)).isFalse();
+
+        // 대기열에서 기다리다가 release 되면 들어간다
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> bulkhead.tryAcquire(TimeUnit.SECONDS.toNanos(5)));
+        while (bulkhead.getWaiting() == 0) {
+            Thread.sleep(1);
+        }
+        // 대기열(1)이 꽉 찼으면 바로 거절
+        assertThat(bulkhead.tryAcquire(TimeUnit.SECONDS.toNanos(5))).isFalse();
+
+        bulkhead.release(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkhead.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    public void adaptLimitToLatency() {
+        Bulkhead bulkhead = new Bulkhead(limits(10, 2, 40, 0, Duration.ZERO), 2.0);
+
+        // 지연시간이 그대로면 한도를 늘린다
+        for (int i = 0; i < 100; i++) {
+            bulkhead.tryAcquire(0);
+            bulkhead.release(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        int grown = bulkhead.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        // 지연시간이 최소의 2배를 넘으면 줄인다
+        for (int i = 0; i < 100; i++) {
+            bulkhead.tryAcquire(0);
+            bulkhead.release(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertThat(bulkhead.getLimit()).isLessThan(grown).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void shedExpensiveKeepCheap() throws Exception {
+        Bulkhead expensive = admissionFilter.bulkhead(CostClass.EXPENSIVE);
+        double shedBefore = meterRegistry.counter("admission.requests", "class", "expensive", "outcome", "shed").count();
+        int taken = 0;
+        try {
+            while (expensive.tryAcquire(0)) {
+                taken++;
+            }
+
+            // count 가 필요한 조건 없는 페이지 조회는 대기 후 429
+            mockMvc.perform(get("/v2/members"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+            assertThat(meterRegistry.counter("admission.requests", "class", "expensive", "outcome", "shed").count())
+                .isEqualTo(shedBefore + 1);
+
+            // 다른 등급은 영향 없음
+            mockMvc.perform(get("/members").param("ids", "1,2"))
+                .andExpect(status().isOk());
+        } finally {
+            for (int i = 0; i < taken; i++) {
+                expensive.release(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+
+        mockMvc.perform(get("/v2/members"))
+            .andExpect(status().isOk());
+    }
+
+    private static MockHttpServletRequest request(String path, String... params) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        for (int i = 0; i < params.length; i += 2) {
+            request.addParameter(params[i], params[i + 1]);
+        }
+        return request;
+    }
+
+    // ids=1&ids=2&... 처럼 한 개씩
+    private static String[] idsParams(int count) {
+        String[] params = new String[count * 2];
+        for (int i = 0; i < count; i++) {
+            params[i * 2] = "ids";
+            params[i * 2 + 1] = String.valueOf(i + 1);
+        }
+        return params;
+    }
+
+    private static AdmissionProperties.Limits limits(int initial, int min, int max, int queue, Duration wait) {
+        AdmissionProperties.Limits limits = new AdmissionProperties.Limits();
+        limits.setInitialLimit(initial);
+        limits.setMinLimit(min);
+        limits.setMaxLimit(max);
+        limits.setQueueCapacity(queue);
+        limits.setMaxQueueWait(wait);
+        return limits;
+    }
+}
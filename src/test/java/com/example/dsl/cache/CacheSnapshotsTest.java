@@ -0,0 +1,118 @@
+package com.example.dsl.cache;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dsl.entity.DataVersion;
+import com.example.dsl.entity.Team;
+import com.example.dsl.entity.TeamChangedEvent;
+import com.example.dsl.repository.TeamIdResolver;
+import com.example.dsl.support.QueryStats;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 재시작은 캐시를 비우는 것으로 흉내낸다, 캐시는 커밋된 데이터만 담으므로 커밋하고 지움
+@SpringBootTest(properties = {
+    "app.cache-snapshot.enabled=true",
+    "app.cache-snapshot.directory=${java.io.tmpdir}/dsl-cache-snapshot-test/${random.uuid}"
+})
+class CacheSnapshotsTest {
+
+    @Autowired
+    CacheSnapshots cacheSnapshots;
+
+    @Autowired
+    TeamIdResolver teamIdResolver;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    DataVersions dataVersions;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void clearData() {
+        transactionTemplate.execute(status -> {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            return null;
+        });
+        teamIdResolver.onTeamChanged(new TeamChangedEvent(null));
+    }
+
+    @Test
+    public void restoreWithoutQueryTest() {
+        Long teamAId = saveTeam("teamA");
+        teamIdResolver.resolve("teamA");
+        cacheSnapshots.saveAll();
+        teamIdResolver.onTeamChanged(new TeamChangedEvent(null));
+
+        assertThat(cacheSnapshots.restoreAll()).isEqualTo(1);
+
+        // 스냅샷 이후 팀 변경이 없으므로 DB 를 보지 않는다
+        QueryStats stats = QueryStats.start(emf);
+        assertThat(teamIdResolver.resolve("teamA")).containsExactly(teamAId);
+        stats.assertWithin(0, 0, 0);
+    }
+
+    @Test
+    public void revalidateStaleSnapshotTest() {
+        Long firstId = saveTeam("teamA");
+        teamIdResolver.resolve("teamA");
+        cacheSnapshots.saveAll();
+        // 스냅샷 이후 같은 이름의 팀이 생겼다
+        Long secondId = saveTeam("teamA");
+        teamIdResolver.onTeamChanged(new TeamChangedEvent(null));
+
+        assertThat(cacheSnapshots.restoreAll()).isEqualTo(1);
+
+        QueryStats stats = QueryStats.start(emf);
+        assertThat(teamIdResolver.resolve("teamA")).containsExactlyInAnyOrder(firstId, secondId);
+        stats.assertWithin(0, 0, 0);
+    }
+
+    @Test
+    public void revalidateChangeFromAnotherInstanceTest() {
+        Long firstId = saveTeam("teamA");
+        teamIdResolver.resolve("teamA");
+        cacheSnapshots.saveAll();
+        // 다른 인스턴스가 팀을 추가했다: 이 인스턴스의 listener 는 모르고 DB 의 데이터 버전만 바뀐다
+        Long secondId = firstId + 1000;
+        transactionTemplate.execute(status -> {
+            jdbcTemplate.update("insert into team (team_id, name) values (?, ?)", secondId, "teamA");
+            dataVersions.changed(DataVersion.TEAM);
+            return null;
+        });
+        teamIdResolver.onTeamChanged(new TeamChangedEvent(null));
+
+        assertThat(cacheSnapshots.restoreAll()).isEqualTo(1);
+
+        QueryStats stats = QueryStats.start(emf);
+        assertThat(teamIdResolver.resolve("teamA")).containsExactlyInAnyOrder(firstId, secondId);
+        stats.assertWithin(0, 0, 0);
+    }
+
+    private Long saveTeam(String name) {
+        return transactionTemplate.execute(status -> {
+            Team team = new Team(name);
+            em.persist(team);
+            return team.getId();
+        });
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.dsl.changelog;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ChangeLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void appendAndReadFromOffsetTest() throws Exception {
+        ChangeLog changeLog = new ChangeLog(directory, 1024, 16, false);
+        changeLog.append(ChangeOperation.INSERT, "Member", 1L, "");
+        long second = changeLog.append(ChangeOperation.UPDATE, "Member", 1L, "age");
+        changeLog.append(ChangeOperation.DELETE, "Team", 2L, "");
+
+        List<ChangeRecord> records = changeLog.reader(second).poll(10);
+
+        assertThat(records).extracting(ChangeRecord::getOperation)
+            .containsExactly(ChangeOperation.UPDATE, ChangeOperation.DELETE);
+        assertThat(records.get(0).getDetail()).isEqualTo("age");
+        assertThat(records.get(1).getEntity()).isEqualTo("Team");
+        assertThat(records.get(1).getNextOffset()).isEqualTo(changeLog.endOffset());
+    }
+
+    @Test
+    public void rollSegmentsAndRecoverTest() throws Exception {
+        // 세그먼트 하나에 레코드 몇 개만 들어가게
+        ChangeLog changeLog = new ChangeLog(directory, 128, 16, false);
+        for (long id = 1; id <= 20; id++) {
+            changeLog.append(ChangeOperation.UPDATE, "Member", id, "age");
+        }
+        long end = changeLog.endOffset();
+        changeLog.close();
+
+        // 재시작 후 이어 쓰기, 처음부터 다시 읽기
+        ChangeLog reopened = new ChangeLog(directory, 128, 16, false);
+        assertThat(reopened.endOffset()).isEqualTo(end);
+        reopened.append(ChangeOperation.UPDATE, "Member", 21L, "age");
+
+        List<ChangeRecord> records = reopened.reader(reopened.startOffset()).poll(100);
+        assertThat(records).extracting(ChangeRecord::getEntityId)
+            .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L, 21L);
+    }
+
+    @Test
+    public void retentionTest() throws Exception {
+        ChangeLog changeLog = new ChangeLog(directory, 128, 2, false);
+        for (long id = 1; id <= 20; id++) {
+            changeLog.append(ChangeOperation.UPDATE, "Member", id, "age");
+        }
+
+        // 지워진 offset 부터 읽으면 남아 있는 것부터
+        assertThat(changeLog.startOffset()).isGreaterThan(0);
+        List<ChangeRecord> records = changeLog.reader(0).poll(100);
+        assertThat(records).isNotEmpty();
+        assertThat(records.get(records.size() - 1).getEntityId()).isEqualTo(20L);
+    }
+
+    @Test
+    public void subscribeTest() throws Exception {
+        ChangeLog changeLog = new ChangeLog(directory, 1024, 16, false);
+        changeLog.append(ChangeOperation.INSERT, "Member", 1L, "");
+        List<ChangeRecord> received = new CopyOnWriteArrayList<>();
+
+        try (ChangeLog.Subscription subscription = changeLog.subscribe(changeLog.startOffset(), received::add)) {
+            changeLog.append(ChangeOperation.INSERT, "Member", 2L, "");
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (received.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(received).extracting(ChangeRecord::getEntityId).containsExactly(1L, 2L);
+            assertThat(subscription.position()).isEqualTo(changeLog.endOffset());
+        }
+    }
+
+    @Test
+    public void subscriberFailureIsRetriedTest() throws Exception {
+        ChangeLog changeLog = new ChangeLog(directory, 1024, 16, false);
+        changeLog.append(ChangeOperation.INSERT, "Member", 1L, "");
+        changeLog.append(ChangeOperation.INSERT, "Member", 2L, "");
+        List<ChangeRecord> received = new CopyOnWriteArrayList<>();
+        AtomicInteger failures = new AtomicInteger();
+
+        // 첫 레코드에서 두 번 실패하고 성공 -> 건너뛰지 않고 순서대로 받는다
+        try (ChangeLog.Subscription subscription = changeLog.subscribe(changeLog.startOffset(), record -> {
+            if (record.getEntityId() == 1L && failures.getAndIncrement() < 2) {
+                throw new IllegalStateException("temporary");
+            }
+            received.add(record);
+        })) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (received.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(received).extracting(ChangeRecord::getEntityId).containsExactly(1L, 2L);
+            assertThat(subscription.failure()).isNull();
+        }
+    }
+
+    @Test
+    public void subscriberFailureStopsSubscriptionTest() throws Exception {
+        ChangeLog changeLog = new ChangeLog(directory, 1024, 16, false);
+        changeLog.append(ChangeOperation.INSERT, "Member", 1L, "");
+        long failing = changeLog.append(ChangeOperation.INSERT, "Member", 2L, "");
+        changeLog.append(ChangeOperation.INSERT, "Member", 3L, "");
+        List<ChangeRecord> received = new CopyOnWriteArrayList<>();
+
+        try (ChangeLog.Subscription subscription = changeLog.subscribe(changeLog.startOffset(), record -> {
+            if (record.getEntityId() == 2L) {
+                throw new IllegalStateException("permanent");
+            }
+            received.add(record);
+        })) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (subscription.failure() == null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            // 실패한 레코드에서 멈추고 그 뒤는 넘기지 않는다 -> position 부터 다시 구독하면 된다
+            assertThat(subscription.failure()).hasMessage("permanent");
+            assertThat(subscription.position()).isEqualTo(failing);
+            assertThat(received).extracting(ChangeRecord::getEntityId).containsExactly(1L);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.dsl.changelog;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dsl.entity.Member;
+import com.example.dsl.entity.Team;
+import com.example.dsl.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+// 커밋 후에만 남으므로 @Transactional 대신 커밋하고 지움
+@SpringBootTest(properties = {
+    "app.change-log.enabled=true",
+    "app.change-log.directory=${java.io.tmpdir}/dsl-change-log-test/${random.uuid}",
+    "app.change-log.segment-size=64KB"
+})
+class EntityChangeCaptureTest {
+
+    @Autowired
+    ChangeLog changeLog;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void clearData() {
+        transactionTemplate.execute(status -> {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    public void captureCommittedChangesTest() {
+        long from = changeLog.endOffset();
+
+        Long memberId = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            Member member = new Member("member1", 10, teamA);
+            em.persist(member);
+            return member.getId();
+        });
+        transactionTemplate.execute(status -> {
+            em.find(Member.class, memberId).setAge(11);
+            return null;
+        });
+        // 롤백된 변경은 남지 않는다
+        transactionTemplate.execute(status -> {
+            em.find(Member.class, memberId).setAge(99);
+            em.flush();
+            status.setRollbackOnly();
+            return null;
+        });
+        transactionTemplate.execute(status -> memberRepository.bulkAgePlus(0));
+
+        List<ChangeRecord> records = changeLog.reader(from).poll(100);
+
+        assertThat(records).extracting(ChangeRecord::getOperation, ChangeRecord::getEntity).containsExactly(
+            tuple(ChangeOperation.INSERT, "Team"),
+            tuple(ChangeOperation.INSERT, "Member"),
+            tuple(ChangeOperation.UPDATE, "Member"),
+            tuple(ChangeOperation.BULK_UPDATE, "Member"));
+        assertThat(records.get(1).getEntityId()).isEqualTo(memberId);
+        assertThat(records.get(2).getDetail()).contains("age");
+        assertThat(records.get(3).getDetail()).isEqualTo("bulkAgePlus[0] rows=1");
+    }
+}
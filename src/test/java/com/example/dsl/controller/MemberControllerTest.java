@@ -0,0 +1,128 @@
+package com.example.dsl.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.dsl.config.MemberColumnsHttpMessageConverter;
+import com.example.dsl.dto.MemberColumns;
+import com.example.dsl.entity.Member;
+import com.example.dsl.entity.Team;
+import com.example.dsl.support.QueryBudget;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    Long member1Id;
+    Long member3Id;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        em.persist(new Member("member2", 20, teamA));
+        Member member3 = new Member("member3", 30, teamB);
+        em.persist(member3);
+        em.persist(new Member("member4", 40, teamB));
+        member1Id = member1.getId();
+        member3Id = member3.getId();
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @QueryBudget(statements = 1, entityLoads = 0, collectionInits = 0)
+    public void searchMemberV1() throws Exception {
+        mockMvc.perform(get("/v1/members").param("teamName", "teamB"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].teamName").value("teamB"));
+    }
+
+    @Test
+    @QueryBudget(statements = 1, entityLoads = 4, collectionInits = 0)
+    public void findMembersByIds() throws Exception {
+        // member 2 + team 2 를 in 절 한 번으로
+        Long missingId = -1L;
+        mockMvc.perform(get("/members").param("ids", member3Id + "," + missingId + "," + member1Id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.found", hasSize(2)))
+            .andExpect(jsonPath("$.found[0].username").value("member3"))
+            .andExpect(jsonPath("$.found[0].teamName").value("teamB"))
+            .andExpect(jsonPath("$.found[1].username").value("member1"))
+            .andExpect(jsonPath("$.missing[0]").value(missingId));
+    }
+
+    @Test
+    public void searchMemberColumnsBinary() throws Exception {
+        byte[] body = mockMvc.perform(get("/v1/members/columns")
+            .param("teamName", "teamB")
+            .accept(MemberColumnsHttpMessageConverter.MEDIA_TYPE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MemberColumnsHttpMessageConverter.MEDIA_TYPE))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        MemberColumns columns = MemberColumns.readFrom(new DataInputStream(new ByteArrayInputStream(body)));
+        assertThat(columns.getUsernames()).containsExactly("member3", "member4");
+        assertThat(columns.getAges()).containsExactly(30, 40);
+        assertThat(columns.getTeamNames()).containsExactly("teamB");
+        assertThat(columns.getTeamIndexes()).containsExactly(0, 0);
+    }
+
+    @Test
+    public void searchMemberColumnsJson() throws Exception {
+        mockMvc.perform(get("/v1/members/columns").param("ageGoe", "30"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.size").value(2))
+            .andExpect(jsonPath("$.ages[1]").value(40))
+            .andExpect(jsonPath("$.teamNames[0]").value("teamB"));
+    }
+
+    // content + count
+    @Test
+    @QueryBudget(statements = 2, entityLoads = 0, collectionInits = 0)
+    public void searchMemberV2() throws Exception {
+        mockMvc.perform(get("/v2/members").param("page", "0").param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.totalElements").value(4));
+    }
+
+    // team 은 lazy 라서 건드리지 않으면 조회되지 않는다
+    @Test
+    @QueryBudget(statements = 1, entityLoads = 1, collectionInits = 0)
+    public void findMember() throws Exception {
+        mockMvc.perform(get("/members/{id}", member1Id))
+            .andExpect(status().isOk())
+            .andExpect(content().string("member1"));
+    }
+}
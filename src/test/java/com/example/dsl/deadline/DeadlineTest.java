@@ -0,0 +1,105 @@
+package com.example.dsl.deadline;
+
+import java.time.Duration;
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.entity.Member;
+import com.example.dsl.repository.MemberRepository;
+import com.example.dsl.repository.support.CountMode;
+import com.example.dsl.repository.support.CountedPage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DeadlineTest {
+
+    // 수 초 걸리는 쿼리 (조건 때문에 count 최적화가 안 된다)
+    private static final String SLOW_QUERY =
+        "select count(*) from system_range(1, 20000) a, system_range(1, 20000) b where a.x + b.x > 0";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @AfterEach
+    public void clearDeadline() {
+        Deadline.clear();
+    }
+
+    @Test
+    public void cancelStatementAtDeadline() {
+        double cancelledBefore = meterRegistry.counter("request.deadline.cancelled").count();
+        Deadline.bind(Deadline.after(Duration.ofMillis(200), Duration.ZERO));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> jdbcTemplate.queryForObject(SLOW_QUERY, Long.class))
+            .isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(meterRegistry.counter("request.deadline.cancelled").count()).isGreaterThan(cancelledBefore);
+    }
+
+    @Test
+    public void rejectQueryAfterDeadline() {
+        Deadline.bind(Deadline.after(Duration.ZERO, Duration.ZERO));
+
+        assertThatThrownBy(() -> jdbcTemplate.queryForObject("select 1", Integer.class))
+            .isInstanceOf(QueryTimeoutException.class);
+    }
+
+    @Test
+    @Transactional
+    public void skipCountWhenNearlySpent() {
+        for (int i = 0; i < 4; i++) {
+            em.persist(new Member("member" + i, 10 * i));
+        }
+        em.flush();
+        em.clear();
+        // 시간은 남았지만 reserve 보다 적다
+        Deadline.bind(Deadline.after(Duration.ofSeconds(5), Duration.ofSeconds(10)));
+
+        CountedPage<?> page = (CountedPage<?>) memberRepository.searchPageComplex(
+            new MemberSearchCondition(), PageRequest.of(0, 2), CountMode.EXACT);
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.isTotalExact()).isFalse();
+        assertThat(page.getTotalDisplay()).isEqualTo("3+");
+    }
+
+    @Test
+    public void gatewayTimeoutFromHeader() throws Exception {
+        mockMvc.perform(get("/v1/members").header("X-Request-Deadline-Ms", "0"))
+            .andExpect(status().isGatewayTimeout());
+        mockMvc.perform(get("/v1/members").header("X-Request-Deadline-Ms", "5000"))
+            .andExpect(status().isOk());
+    }
+}
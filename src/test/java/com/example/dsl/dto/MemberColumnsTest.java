@@ -0,0 +1,68 @@
+package com.example.dsl.dto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberColumnsTest {
+
+    @Test
+    public void roundTripKeepsNulls() throws Exception {
+        MemberColumns.Builder builder = MemberColumns.builder(3)
+            .add(1L, "member1", 10, 100L)
+            .add(2L, null, 20, 100L)
+            .add(3L, "", 30, null);
+        // 사전에 있는 팀의 이름을 못 찾은 경우
+        MemberColumns columns = builder.build(Collections.emptyMap());
+
+        MemberColumns read = readFrom(write(columns));
+
+        // null 과 빈 문자열을 구분한다
+        assertThat(read.getUsernames()).containsExactly("member1", null, "");
+        assertThat(read.getMemberIds()).containsExactly(1L, 2L, 3L);
+        assertThat(read.getAges()).containsExactly(10, 20, 30);
+        assertThat(read.getTeamIndexes()).containsExactly(0, 0, MemberColumns.NO_TEAM);
+        assertThat(read.getTeamIds()).containsExactly(100L);
+        assertThat(read.getTeamNames()).containsExactly((String) null);
+    }
+
+    @Test
+    public void rejectInvalidSize() throws Exception {
+        byte[] header = header(-1);
+        assertThatThrownBy(() -> readFrom(header))
+            .isInstanceOf(IOException.class);
+
+        // 크기만 크고 내용이 없으면 그 크기만큼 잡기 전에 입력이 끝난다
+        byte[] truncated = header(Integer.MAX_VALUE);
+        assertThatThrownBy(() -> readFrom(truncated))
+            .isInstanceOf(IOException.class);
+    }
+
+    private static byte[] header(int size) throws IOException {
+        byte[] valid = write(MemberColumns.builder(0).build(Collections.emptyMap()));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        // magic, version 은 그대로 쓰고 size 만 바꾼다
+        out.write(valid, 0, 8);
+        out.writeInt(size);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] write(MemberColumns columns) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        columns.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static MemberColumns readFrom(byte[] bytes) throws IOException {
+        return MemberColumns.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -4,12 +4,18 @@ import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import org.hibernate.engine.spi.SelfDirtinessTracker;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Commit;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import static com.example.dsl.entity.QMember.member;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @SpringBootTest
 @Transactional
@@ -18,6 +24,9 @@ class MemberTest {
     @PersistenceContext
     EntityManager em;
 
+    @Autowired
+    JPAQueryFactory queryFactory;
+
     @Test
     public void testEntity() {
         Team teamA = new Team("teamA");
@@ -46,4 +55,56 @@ class MemberTest {
             System.out.println("-> member.team = " + member.getTeam());
         }
     }
-}
\ No newline at end of file
+
+    // build.gradle 의 hibernate enhance: lombok setter 로 바꾼 속성만 dirty 로 기록된다
+    @Test
+    public void dirtyTracking() {
+        assumeEnhanced();
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        em.flush();
+        em.clear();
+
+        Member findMember = em.find(Member.class, member1.getId());
+        assertTrue(findMember instanceof SelfDirtinessTracker);
+        SelfDirtinessTracker tracker = (SelfDirtinessTracker) findMember;
+        assertFalse(tracker.$$_hibernate_hasDirtyAttributes());
+
+        findMember.setAge(11);
+        assertArrayEquals(new String[] {"age"}, tracker.$$_hibernate_getDirtyAttributes());
+
+        // querydsl 쿼리 전 자동 flush 에도 반영된다
+        Integer age = queryFactory
+            .select(member.age)
+            .from(member)
+            .where(member.id.eq(member1.getId()))
+            .fetchOne();
+        assertEquals(Integer.valueOf(11), age);
+        assertFalse(tracker.$$_hibernate_hasDirtyAttributes());
+    }
+
+    @Test
+    public void associationManagement() {
+        assumeEnhanced();
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        assertEquals(1, teamA.getMembers().size());
+
+        // member.team 만 바꿔도 양쪽 team.members 가 맞춰진다
+        member1.setTeam(teamB);
+        assertFalse(teamA.getMembers().contains(member1));
+        assertEquals(1, teamB.getMembers().size());
+    }
+
+    // -PhibernateEnhance=false 로 빌드하면 건너뛴다
+    private static void assumeEnhanced() {
+        assumeTrue(SelfDirtinessTracker.class.isAssignableFrom(Member.class), "hibernate enhance 가 꺼져 있음");
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.dsl.repository;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.dto.MemberTeamDto;
+import com.example.dsl.entity.Member;
+import com.example.dsl.entity.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class JdbcMemberSearchQueryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    // 테스트는 기본 프로파일이라 JPA 구현이 주입된다
+    @Autowired
+    MemberSearchQuery jpaSearchQuery;
+
+    JdbcMemberSearchQuery jdbcSearchQuery;
+
+    @BeforeEach
+    public void before() {
+        jdbcSearchQuery = new JdbcMemberSearchQuery(jdbcTemplate);
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 50));
+        // JDBC 는 영속성 컨텍스트를 보지 않으므로 DB 에 반영해둔다 (같은 트랜잭션, 같은 커넥션)
+        em.flush();
+    }
+
+    @Test
+    public void sameResultAsJpa() throws Exception {
+        MemberSearchCondition all = new MemberSearchCondition();
+
+        MemberSearchCondition team = new MemberSearchCondition();
+        team.setTeamName("teamB");
+
+        MemberSearchCondition ageRange = new MemberSearchCondition();
+        ageRange.setAgeGoe(20);
+        ageRange.setAgeLoe(40);
+
+        MemberSearchCondition allConditions = new MemberSearchCondition();
+        allConditions.setUsername("member4");
+        allConditions.setTeamName("teamB");
+        allConditions.setAgeGoe(35);
+        allConditions.setAgeLoe(40);
+
+        for (MemberSearchCondition condition : List.of(all, team, ageRange, allConditions)) {
+            // MemberTeamDto 는 @Data 라 값으로 비교된다
+            assertThat(jdbcSearchQuery.search(condition))
+                .containsExactlyInAnyOrderElementsOf(jpaSearchQuery.search(condition));
+        }
+    }
+
+    @Test
+    public void memberWithoutTeam() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member5");
+
+        List<MemberTeamDto> result = jdbcSearchQuery.search(condition);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getAge()).isEqualTo(50);
+        assertThat(result.get(0).getTeamId()).isNull();
+        assertThat(result.get(0).getTeamName()).isNull();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.dsl.repository;
 
 import java.util.List;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,7 @@ import com.example.dsl.dto.MemberSearchCondition;
 import com.example.dsl.dto.MemberTeamDto;
 import com.example.dsl.entity.Member;
 import com.example.dsl.entity.Team;
+import com.example.dsl.support.QueryStats;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -22,6 +24,9 @@ class MemberJpaRepositoryTest {
     @Autowired
     EntityManager em;
 
+    @Autowired
+    EntityManagerFactory emf;
+
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
@@ -96,6 +101,23 @@ class MemberJpaRepositoryTest {
         assertThat(result2).extracting("username").containsExactly("member3", "member4");
     }
 
+    // dto 로 바로 조회하면 team 까지 쿼리 한 번, 엔티티는 하나도 올리지 않는다
+    // (+ 팀 이름 -> id 조회 한 번: 쓰기 트랜잭션 안이라 TeamIdResolver 캐시를 쓰지 않음)
+    @Test
+    public void searchQueryBudgetTest() throws Exception {
+        initData();
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        QueryStats stats = QueryStats.start(emf);
+        List<MemberTeamDto> result = memberJpaRepository.searchByWhereParameter(condition);
+        assertThat(result).extracting("teamName").containsOnly("teamB");
+        stats.assertWithin(2, 0, 0);
+    }
+
     private void initData() {
         Team teamA = new Team("teamA");
         Team teamB = new Team("teamB");
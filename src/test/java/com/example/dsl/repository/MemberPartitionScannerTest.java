@@ -0,0 +1,137 @@
+package com.example.dsl.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dsl.dto.MemberTeamDto;
+import com.example.dsl.entity.Member;
+import com.example.dsl.entity.Team;
+import com.example.dsl.repository.support.IdRange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 구간마다 다른 커넥션으로 읽으므로 데이터를 커밋하고 지운다
+@SpringBootTest
+class MemberPartitionScannerTest {
+
+    static final int MEMBERS = 1000;
+
+    @Autowired
+    MemberPartitionScanner scanner;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void initData() {
+        transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < MEMBERS; i++) {
+                em.persist(new Member("member" + i, i, i % 2 == 0 ? teamA : teamB));
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    public void clearData() {
+        transactionTemplate.execute(status -> {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    public void partitionsCoverAllIds() {
+        List<IdRange> partitions = scanner.partitions(4);
+
+        assertThat(partitions).hasSizeBetween(2, 4);
+        for (int i = 1; i < partitions.size(); i++) {
+            assertThat(partitions.get(i).getFromInclusive()).isEqualTo(partitions.get(i - 1).getToExclusive());
+        }
+        assertThat(count(4)).isEqualTo(MEMBERS);
+    }
+
+    @Test
+    public void reduce() {
+        long ageSum = scanner.reduce(8, () -> new long[1], (acc, row) -> acc[0] += row.getAge(),
+            (a, b) -> new long[] {a[0] + b[0]})[0];
+        assertThat(ageSum).isEqualTo((long) MEMBERS * (MEMBERS - 1) / 2);
+    }
+
+    @Test
+    public void forEachOrdered() {
+        List<MemberTeamDto> rows = new ArrayList<>();
+        scanner.forEachOrdered(8, rows::add);
+
+        assertThat(rows).hasSize(MEMBERS);
+        assertThat(rows).extracting("memberId").isSorted();
+        assertThat(rows.get(0).getTeamName()).isEqualTo("teamA");
+    }
+
+    @Test
+    public void consumerFailureReleasesPartitions() {
+        assertThatThrownBy(() -> scanner.forEachOrdered(8, row -> {
+            if (row.getAge() == 10) {
+                throw new IllegalStateException("stop");
+            }
+        })).hasMessage("stop");
+
+        // 커넥션과 스레드가 반환되어 다시 읽을 수 있다
+        assertThat(count(8)).isEqualTo(MEMBERS);
+    }
+
+    @Test
+    public void accumulatorFailureStopsOtherPartitions() throws Exception {
+        assertThat(scanner.partitions(2)).hasSize(2);
+        AtomicInteger otherRows = new AtomicInteger();
+        CountDownLatch released = new CountDownLatch(1);
+
+        // 첫 구간은 첫 row 에서 실패하고, 다른 구간은 첫 row 에서 실패가 전해질 때까지 붙잡아 둔다
+        assertThatThrownBy(() -> scanner.reduce(2, () -> new long[1], (acc, row) -> {
+            if (row.getAge() == 0) {
+                throw new IllegalStateException("stop");
+            }
+            if (otherRows.incrementAndGet() == 1) {
+                awaitQuietly(released);
+            }
+        }, (a, b) -> a)).hasMessage("stop");
+        released.countDown();
+
+        // 다른 구간은 다음 row 에서 멈춘다
+        assertThat(count(2)).isEqualTo(MEMBERS);
+        assertThat(otherRows.get()).isEqualTo(1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long count(int partitions) {
+        return scanner.reduce(partitions, () -> new long[1], (acc, row) -> acc[0]++,
+            (a, b) -> new long[] {a[0] + b[0]})[0];
+    }
+}
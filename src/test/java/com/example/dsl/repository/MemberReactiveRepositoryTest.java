@@ -0,0 +1,79 @@
+package com.example.dsl.repository;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.entity.Member;
+import com.example.dsl.entity.Team;
+
+import reactor.test.StepVerifier;
+
+// r2dbc 는 다른 커넥션이라 롤백되는 @Transactional 데이터는 보이지 않는다 -> 커밋하고 지움
+@SpringBootTest
+class MemberReactiveRepositoryTest {
+
+    @Autowired
+    MemberReactiveRepository memberReactiveRepository;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void initData() {
+        transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamB));
+            em.persist(new Member("member4", 40, teamB));
+            return null;
+        });
+    }
+
+    @AfterEach
+    public void clearData() {
+        transactionTemplate.execute(status -> {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    public void searchTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(35);
+        condition.setAgeLoe(40);
+        condition.setTeamName("teamB");
+
+        StepVerifier.create(memberReactiveRepository.search(condition))
+            .expectNextMatches(dto -> dto.getUsername().equals("member4") && dto.getTeamName().equals("teamB"))
+            .verifyComplete();
+    }
+
+    @Test
+    public void cancelTest() {
+        // 하나만 받고 취소해도 커넥션이 반환되어 다음 조회가 가능해야 한다
+        StepVerifier.create(memberReactiveRepository.search(new MemberSearchCondition()), 1)
+            .expectNextCount(1)
+            .thenCancel()
+            .verify();
+
+        StepVerifier.create(memberReactiveRepository.search(new MemberSearchCondition()))
+            .expectNextCount(4)
+            .verifyComplete();
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.dsl.repository;
 
+import java.util.Arrays;
 import java.util.List;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,14 +16,22 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.dsl.dto.MemberColumns;
 import com.example.dsl.dto.MemberDto;
 import com.example.dsl.dto.MemberSearchCondition;
 import com.example.dsl.dto.MemberTeamDto;
 import com.example.dsl.entity.Member;
 import com.example.dsl.entity.Team;
+import com.example.dsl.repository.support.CountMode;
+import com.example.dsl.repository.support.CountStrategy;
+import com.example.dsl.repository.support.CountedPage;
+import com.example.dsl.repository.support.IdLookup;
+import com.example.dsl.repository.support.UnsupportedSortException;
+import com.example.dsl.support.QueryStats;
 
 import static com.example.dsl.entity.QMember.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.map;
 
 @SpringBootTest
@@ -34,6 +44,9 @@ class MemberRepositoryTest {
     @Autowired
     EntityManager em;
 
+    @Autowired
+    EntityManagerFactory emf;
+
     @Test
     public void basicTest() throws Exception {
         Member member = new Member("member1", 10);
@@ -98,6 +111,137 @@ class MemberRepositoryTest {
         assertThat(result4.getSize()).isEqualTo(3);
     }
 
+    @Test
+    public void searchPageSimpleCountTest() throws Exception {
+        initData();
+        em.flush();
+        em.clear();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        QueryStats stats = QueryStats.start(emf);
+        Page<MemberTeamDto> result = memberRepository.searchPageSimple(condition, PageRequest.of(0, 1));
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamB");
+        assertThat(result.getTotalElements()).isEqualTo(2);
+
+        // count 쿼리는 member 만 본다
+        assertThat(stats.statements()).filteredOn(sql -> sql.contains("count("))
+            .hasSize(1)
+            .allMatch(sql -> !sql.contains(" join "));
+    }
+
+    @Test
+    public void searchSliceTest() throws Exception {
+        initData();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        Slice<MemberTeamDto> first = memberRepository.searchSlice(condition, PageRequest.of(0, 2));
+        assertThat(first.getContent()).extracting("username").containsExactly("member2", "member3");
+        assertThat(first.hasNext()).isTrue();
+
+        Slice<MemberTeamDto> last = memberRepository.searchSlice(condition, PageRequest.of(1, 2));
+        assertThat(last.getContent()).extracting("username").containsExactly("member4");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    public void searchPageCountStrategyTest() throws Exception {
+        initData();
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        CountedPage<MemberTeamDto> capped = (CountedPage<MemberTeamDto>) memberRepository
+            .searchPageComplex(condition, PageRequest.of(0, 1), CountStrategy.capped(2));
+        assertThat(capped.getTotalElements()).isEqualTo(2);
+        assertThat(capped.isTotalExact()).isFalse();
+        assertThat(capped.getTotalDisplay()).isEqualTo("2+");
+
+        CountedPage<MemberTeamDto> exact = (CountedPage<MemberTeamDto>) memberRepository
+            .searchPageComplex(condition, PageRequest.of(0, 1), CountStrategy.capped(10));
+        assertThat(exact.getTotalElements()).isEqualTo(4);
+        assertThat(exact.isTotalExact()).isTrue();
+
+        // 조건이 있으면 통계 대신 capped 로 처리된다
+        condition.setTeamName("teamB");
+        CountedPage<MemberTeamDto> estimated = (CountedPage<MemberTeamDto>) memberRepository
+            .searchPageComplex(condition, PageRequest.of(0, 1), CountMode.ESTIMATED);
+        assertThat(estimated.getTotalElements()).isEqualTo(2);
+        assertThat(estimated.getTotalDisplay()).isEqualTo("2");
+    }
+
+    @Test
+    public void searchPageDeferredTest() throws Exception {
+        initData();
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        PageRequest pageRequest = PageRequest.of(1, 2, Sort.by(Direction.DESC, "age"));
+        Page<MemberTeamDto> result = memberRepository.searchPageDeferred(condition, pageRequest, CountMode.EXACT);
+        assertThat(result.getContent()).extracting("username").containsExactly("member2", "member1");
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamA", "teamA");
+        assertThat(result.getTotalElements()).isEqualTo(4);
+    }
+
+    @Test
+    public void searchPageSortKeysTest() throws Exception {
+        initData();
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition,
+            PageRequest.of(0, 3, Sort.by(Direction.DESC, "memberId")));
+        assertThat(result.getContent()).extracting("username").containsExactly("member4", "member3", "member2");
+
+        // 허용되지 않은 정렬 키(연관관계 경로)는 거부
+        assertThatThrownBy(() -> memberRepository.searchPageComplex(condition,
+            PageRequest.of(0, 3, Sort.by("team.name"))))
+            .isInstanceOf(UnsupportedSortException.class);
+    }
+
+    @Test
+    public void searchTeamNameRewriteTest() throws Exception {
+        initData();
+
+        // 팀 이름 조건은 team id 조건으로 바뀌어 실행된다
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, PageRequest.of(0, 1));
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamB");
+        assertThat(result.getTotalElements()).isEqualTo(2);
+
+        MemberSearchCondition unknown = new MemberSearchCondition();
+        unknown.setTeamName("teamZ");
+        assertThat(memberRepository.search(unknown)).isEmpty();
+        assertThat(memberRepository.searchPageDeferred(unknown, PageRequest.of(0, 1), CountMode.EXACT)
+            .getTotalElements()).isEqualTo(0);
+
+        // 같은 트랜잭션에서 바뀐 팀 이름도 바로 반영된다
+        Team teamB = em.createQuery("select t from Team t where t.name = 'teamB'", Team.class).getSingleResult();
+        teamB.setName("teamC");
+        MemberSearchCondition renamed = new MemberSearchCondition();
+        renamed.setTeamName("teamC");
+        assertThat(memberRepository.search(renamed)).extracting("username").containsExactly("member3", "member4");
+        assertThat(memberRepository.search(condition)).isEmpty();
+    }
+
+    @Test
+    public void searchColumnsTest() throws Exception {
+        initData();
+        em.persist(new Member("member5", 50));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        MemberColumns columns = memberRepository.searchColumns(condition);
+
+        assertThat(columns.getSize()).isEqualTo(4);
+        assertThat(columns.getUsernames()).containsExactly("member2", "member3", "member4", "member5");
+        assertThat(columns.getAges()).containsExactly(20, 30, 40, 50);
+        // 팀 이름은 사전에 한 번씩만
+        assertThat(columns.getTeamNames()).containsExactly("teamA", "teamB");
+        assertThat(columns.getTeamIndexes()).containsExactly(0, 1, 1, MemberColumns.NO_TEAM);
+        assertThat(columns.teamNameAt(2)).isEqualTo("teamB");
+        assertThat(columns.teamNameAt(3)).isNull();
+    }
+
     private void initData() {
         Team teamA = new Team("teamA");
         Team teamB = new Team("teamB");
@@ -217,6 +361,63 @@ class MemberRepositoryTest {
         List<Member> memberEntityGraph = memberRepository.findMemberEntityGraph();
     }
 
+    @Test
+    public void fetchJoinQueryBudgetTest() throws Exception {
+        initData();
+        em.flush();
+        em.clear();
+
+        // lazy 로딩: member 조회 1번 + team 마다 1번 (N + 1) -> 예산 초과
+        QueryStats lazy = QueryStats.start(emf);
+        memberRepository.findAll().forEach(m -> m.getTeam().getName());
+        assertThatThrownBy(() -> lazy.assertWithin(1, 4, 0))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("statements 3 > 1")
+            .hasMessageContaining("from team");
+        em.clear();
+
+        // fetch join: member 4 + team 2 를 쿼리 한 번으로
+        QueryStats fetchJoin = QueryStats.start(emf);
+        memberRepository.findMemberFetchJoin().forEach(m -> m.getTeam().getName());
+        fetchJoin.assertWithin(1, 6, 0);
+    }
+
+    @Test
+    public void lookupByIdsTest() throws Exception {
+        initData();
+        em.flush();
+        em.clear();
+        List<Long> ids = em.createQuery("select m.id from Member m order by m.username", Long.class).getResultList();
+        // member1 은 이미 영속성 컨텍스트에 있다
+        Member member1 = em.find(Member.class, ids.get(0));
+
+        QueryStats stats = QueryStats.start(emf);
+        IdLookup<Member> result = memberRepository.lookupByIds(
+            Arrays.asList(ids.get(3), -1L, ids.get(0), ids.get(2), ids.get(3)));
+
+        // member4, member3 만 in 절 한 번으로 (team fetch join)
+        stats.assertWithin(1, 4, 0);
+        assertThat(result.getFound()).extracting("username").containsExactly("member4", "member1", "member3");
+        assertThat(result.getFound().get(1)).isSameAs(member1);
+        assertThat(result.getMissing()).containsExactly(-1L);
+    }
+
+    @Test
+    public void lookupByIdsPaddingTest() throws Exception {
+        initData();
+        em.flush();
+        em.clear();
+        List<Long> ids = em.createQuery("select m.id from Member m order by m.username", Long.class).getResultList();
+
+        QueryStats stats = QueryStats.start(emf);
+        IdLookup<Member> result = memberRepository.lookupByIds(ids.subList(0, 3));
+
+        // 3 개여도 in 절 파라미터는 4 개 (hibernate.query.in_clause_parameter_padding)
+        assertThat(result.getFound()).extracting("username").containsExactly("member1", "member2", "member3");
+        assertThat(stats.statements()).hasSize(1);
+        assertThat(stats.statements().get(0).chars().filter(c -> c == '?').count()).isEqualTo(4);
+    }
+
     @Test
     public void jpaHintTest() {
         Member member1 = new Member("member1", 10);
@@ -0,0 +1,107 @@
+package com.example.dsl.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.entity.Member;
+import com.example.dsl.entity.Team;
+import com.example.dsl.repository.support.CountMode;
+import com.example.dsl.support.QueryStats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberTestRepositoryTest {
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Test
+    public void applyPaginationTest() throws Exception {
+        initData();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        PageRequest pageRequest = PageRequest.of(0, 3);
+        Page<Member> simple = memberTestRepository.applyPaginationSimple(condition, pageRequest);
+        assertThat(simple.getContent()).extracting("username").containsExactly("member3", "member4");
+        assertThat(simple.getTotalElements()).isEqualTo(2);
+
+        Page<Member> complex = memberTestRepository.applyPaginationComplex(condition, pageRequest);
+        assertThat(complex.getContent()).extracting("username").containsExactly("member3", "member4");
+        assertThat(complex.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    public void applyPaginationDeferredTest() throws Exception {
+        initData();
+        em.flush();
+        em.clear();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        PageRequest pageRequest = PageRequest.of(1, 2, Sort.by(Direction.DESC, "age"));
+
+        QueryStats stats = QueryStats.start(emf);
+        Page<Member> result = memberTestRepository.applyPaginationDeferred(condition, pageRequest, CountMode.EXACT);
+        result.forEach(m -> m.getTeam().getName());
+
+        // id 페이징 1번 + fetch join 본 조회 1번 + count 1번, team 은 lazy 로딩 없이 같이 온다
+        stats.assertWithin(3, 3, 0);
+        // id 순서(나이 내림차순)가 본 조회 뒤에도 유지된다
+        assertThat(result.getContent()).extracting("username").containsExactly("member2", "member1");
+        assertThat(result.getContent()).extracting("team.name").containsExactly("teamA", "teamA");
+        assertThat(result.getTotalElements()).isEqualTo(4);
+
+        // applyPaginationComplex 와 같은 페이지
+        Page<Member> complex = memberTestRepository.applyPaginationComplex(condition, pageRequest, CountMode.EXACT);
+        assertThat(result.getContent()).extracting("id")
+            .containsExactlyElementsOf(complex.map(Member::getId).getContent());
+    }
+
+    @Test
+    public void applyPaginationDeferredEmptyTest() throws Exception {
+        initData();
+        em.flush();
+        em.clear();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamZ");
+
+        QueryStats stats = QueryStats.start(emf);
+        Page<Member> result = memberTestRepository.applyPaginationDeferred(condition, PageRequest.of(0, 2),
+            CountMode.EXACT);
+
+        // id 가 없으면 fetch join 본 조회는 건너뛴다
+        assertThat(stats.entityLoadCount()).isEqualTo(0);
+        assertThat(stats.statements()).noneMatch(sql -> sql.contains(" join "));
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getTotalElements()).isEqualTo(0);
+    }
+
+    private void initData() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+    }
+}
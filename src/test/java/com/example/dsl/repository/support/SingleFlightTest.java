@@ -0,0 +1,260 @@
+package com.example.dsl.repository.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import com.example.dsl.deadline.Deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @AfterEach
+    public void clearDeadline() {
+        Deadline.clear();
+    }
+
+    @Test
+    public void coalesceConcurrentCalls() throws Exception {
+        CountDownLatch followersJoined = new CountDownLatch(7);
+        SingleFlight singleFlight = new SingleFlight("test", 4, 5000, registryCountingFollowers(followersJoined));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("teamA", () -> {
+            executions.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "result";
+        })));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 7; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("teamA", () -> {
+                executions.incrementAndGet();
+                return "follower ran";
+            })));
+        }
+        // 모두 leader 를 기다리는 상태가 될 때까지
+        assertThat(followersJoined.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        }
+        executor.shutdown();
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(singleFlight.coalescingRatio()).isEqualTo(7 / 8.0);
+
+        // 끝난 호출은 기억하지 않는다
+        singleFlight.execute("teamA", executions::incrementAndGet);
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void followerGetsCopy() throws Exception {
+        CountDownLatch followerJoined = new CountDownLatch(1);
+        SingleFlight singleFlight = new SingleFlight("test", 4, 5000, registryCountingFollowers(followerJoined));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<List<String>> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            leaderStarted.countDown();
+            await(release);
+            List<String> rows = new ArrayList<>();
+            rows.add("member1");
+            return rows;
+        }, ArrayList::new));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<List<String>> follower = executor.submit(() -> singleFlight.execute("key", () -> new ArrayList<>(), ArrayList::new));
+        assertThat(followerJoined.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+
+        List<String> leaderRows = leader.get(5, TimeUnit.SECONDS);
+        List<String> followerRows = follower.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(followerRows).containsExactly("member1").isNotSameAs(leaderRows);
+        // 한쪽을 고쳐도 다른 쪽은 그대로
+        followerRows.add("member2");
+        assertThat(leaderRows).containsExactly("member1");
+    }
+
+    @Test
+    public void followerRunsItselfAfterTimeout() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight singleFlight = new SingleFlight("test", 4, 50, registry);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> leader = executor.submit(() -> singleFlight.execute("slow", () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "leader";
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(singleFlight.execute("slow", () -> "follower")).isEqualTo("follower");
+        assertThat(registry.get("test.coalescing.calls").tag("role", "timeout").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+        executor.shutdown();
+    }
+
+    @Test
+    public void failureIsNotRemembered() {
+        SingleFlight singleFlight = new SingleFlight("test", 4, 5000, new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.execute("key", () -> "ok")).isEqualTo("ok");
+    }
+
+    // leader 의 deadline 이 지나서 난 실패는 follower 에게 가지 않는다 -> follower 는 자기 시간으로 직접 실행
+    @Test
+    public void leaderDeadlineFailureIsNotShared() throws Exception {
+        CountDownLatch followerJoined = new CountDownLatch(1);
+        SingleFlight singleFlight = new SingleFlight("test", 4, 5000, registryCountingFollowers(followerJoined));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<String> leader = executor.submit(() -> {
+            Deadline.bind(Deadline.after(Duration.ZERO, Duration.ZERO));
+            try {
+                return singleFlight.execute("key", () -> {
+                    leaderStarted.countDown();
+                    await(followerJoined);
+                    throw new QueryTimeoutException("deadline exceeded");
+                });
+            } finally {
+                Deadline.clear();
+            }
+        });
+        Future<String> follower = executor.submit(() -> {
+            await(leaderStarted);
+            return singleFlight.execute("key", () -> "follower");
+        });
+
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("follower");
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(QueryTimeoutException.class);
+        executor.shutdown();
+    }
+
+    // leader 의 남은 시간 때문에 줄어든 결과(count 생략)는 나누지 않는다
+    @Test
+    public void degradedResultIsNotShared() throws Exception {
+        CountDownLatch followerJoined = new CountDownLatch(1);
+        SingleFlight singleFlight = new SingleFlight("test", 4, 5000, registryCountingFollowers(followerJoined));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<String> leader = executor.submit(() -> {
+            Deadline.bind(Deadline.after(Duration.ofSeconds(5), Duration.ZERO));
+            try {
+                return singleFlight.execute("key", () -> {
+                    leaderStarted.countDown();
+                    await(followerJoined);
+                    Deadline.current().markDegraded();
+                    return "partial";
+                });
+            } finally {
+                Deadline.clear();
+            }
+        });
+        Future<String> follower = executor.submit(() -> {
+            await(leaderStarted);
+            return singleFlight.execute("key", () -> "full");
+        });
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("partial");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("full");
+        executor.shutdown();
+    }
+
+    // follower 는 coalescing timeout 이 남아도 자기 deadline 까지만 기다린다
+    @Test
+    public void followerWaitIsCappedByDeadline() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight singleFlight = new SingleFlight("test", 4, 5000, registry);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> leader = executor.submit(() -> singleFlight.execute("slow", () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "leader";
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Deadline.bind(Deadline.after(Duration.ofMillis(100), Duration.ZERO));
+        long start = System.nanoTime();
+        assertThat(singleFlight.execute("slow", () -> "follower")).isEqualTo("follower");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(registry.get("test.coalescing.calls").tag("role", "timeout").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // follower 카운터가 올라갈 때마다 latch 를 내린다 (follower 가 leader 의 호출을 잡은 시점)
+    private static SimpleMeterRegistry registryCountingFollowers(CountDownLatch followersJoined) {
+        return new SimpleMeterRegistry() {
+            @Override
+            protected Counter newCounter(Meter.Id id) {
+                Counter counter = super.newCounter(id);
+                if (!"follower".equals(id.getTag("role"))) {
+                    return counter;
+                }
+                return new Counter() {
+                    @Override
+                    public void increment(double amount) {
+                        counter.increment(amount);
+                        followersJoined.countDown();
+                    }
+
+                    @Override
+                    public double count() {
+                        return counter.count();
+                    }
+
+                    @Override
+                    public Meter.Id getId() {
+                        return counter.getId();
+                    }
+                };
+            }
+        };
+    }
+}
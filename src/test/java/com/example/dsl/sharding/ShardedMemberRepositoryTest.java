@@ -0,0 +1,158 @@
+package com.example.dsl.sharding;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.dsl.dto.MemberSearchCondition;
+import com.example.dsl.dto.MemberTeamDto;
+import com.example.dsl.repository.support.UnsupportedSortException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 메모리 H2 3개를 샤드로
+class ShardedMemberRepositoryTest {
+
+    static final int SHARDS = 3;
+
+    Shards shards;
+    ShardedMemberRepository repository;
+    List<Long> teamIds = new ArrayList<>();
+
+    @BeforeEach
+    public void before() {
+        String run = UUID.randomUUID().toString();
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            dataSources.add(new DriverManagerDataSource(
+                "jdbc:h2:mem:shard" + i + "-" + run + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+        shards = new Shards(dataSources, 2);
+        shards.migrate();
+        repository = new ShardedMemberRepository(shards);
+
+        for (int t = 0; t < 4; t++) {
+            teamIds.add(repository.saveTeam("team" + t));
+        }
+        // 나이는 일부러 겹치게 (정렬이 같을 때 id 로 순서가 정해지는지)
+        for (int i = 0; i < 40; i++) {
+            repository.saveMember("member" + i, i % 10, teamIds.get(i % teamIds.size()));
+        }
+        repository.saveMember("noTeam", 5, null);
+    }
+
+    @AfterEach
+    public void after() {
+        for (int i = 0; i < SHARDS; i++) {
+            shards.shard(i).execute("shutdown");
+        }
+        shards.close();
+    }
+
+    @Test
+    public void teamsReplicatedAndMembersRoutedByTeam() {
+        for (int i = 0; i < SHARDS; i++) {
+            assertThat(shards.shard(i).queryForObject("select count(*) from team", Long.class)).isEqualTo(4);
+        }
+
+        List<MemberTeamDto> all = repository.search(new MemberSearchCondition());
+        assertThat(all).hasSize(41);
+        for (MemberTeamDto member : all) {
+            int shard = shards.shardOfMember(member.getMemberId());
+            assertThat(shard).isEqualTo(shards.shardOfTeam(member.getTeamId()));
+            assertThat(repository.findById(member.getMemberId())).contains(member);
+        }
+        // 실제로 여러 샤드에 나뉘어 있다
+        assertThat(all.stream().map(m -> shards.shardOfMember(m.getMemberId())).distinct()).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    public void searchByTeamName() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+        condition.setAgeGoe(3);
+
+        List<MemberTeamDto> result = repository.search(condition);
+        assertThat(result).extracting("teamName").containsOnly("team1");
+        assertThat(result).extracting("username")
+            .containsExactlyInAnyOrder("member5", "member9", "member13", "member17", "member25", "member29",
+                "member33", "member37");
+    }
+
+    @Test
+    public void globalPagingMatchesSingleDatabaseOrder() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        Sort sort = Sort.by(Sort.Order.desc("age"), Sort.Order.asc("username"));
+        Comparator<MemberTeamDto> expectedOrder = Comparator.comparing(MemberTeamDto::getAge).reversed()
+            .thenComparing(MemberTeamDto::getUsername);
+        List<MemberTeamDto> expected = repository.search(condition).stream()
+            .sorted(expectedOrder)
+            .collect(Collectors.toList());
+
+        for (int page = 0; page < 5; page++) {
+            Page<MemberTeamDto> result = repository.searchPageComplex(condition, PageRequest.of(page, 10, sort));
+            assertThat(result.getContent())
+                .containsExactlyElementsOf(expected.subList(page * 10, Math.min(41, page * 10 + 10)));
+            assertThat(result.getTotalElements()).isEqualTo(41);
+        }
+    }
+
+    @Test
+    public void countSumsShards() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(4);
+
+        Page<MemberTeamDto> result = repository.searchPageComplex(condition, PageRequest.of(0, 3, Sort.by("id")));
+        assertThat(result.getContent()).hasSize(3);
+        assertThat(result.getContent()).isSortedAccordingTo(Comparator.comparing(MemberTeamDto::getMemberId));
+        assertThat(result.getTotalElements()).isEqualTo(20);
+    }
+
+    @Test
+    public void bulkAgePlusOnEveryShard() {
+        assertThat(repository.bulkAgePlus(8)).isEqualTo(8);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+        assertThat(repository.search(condition)).hasSize(4);
+    }
+
+    @Test
+    public void scatterFailureCancelsOtherShards() {
+        AtomicInteger started = new AtomicInteger();
+        long begin = System.nanoTime();
+
+        // 하나는 바로 실패하고, 나머지는 취소되지 않으면 몇 분 걸리는 쿼리
+        assertThatThrownBy(() -> shards.scatter(jdbc -> {
+            if (started.getAndIncrement() == 0) {
+                throw new IllegalStateException("stop");
+            }
+            return jdbc.queryForObject(
+                "select count(*) from system_range(1, 100000) a, system_range(1, 100000) b", Long.class);
+        })).isInstanceOf(IllegalStateException.class).hasMessage("stop");
+
+        // scatter 는 다른 샤드가 끝날 때까지 기다리므로 쿼리가 취소되어야 빨리 돌아온다
+        assertThat(Duration.ofNanos(System.nanoTime() - begin)).isLessThan(Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void unsupportedSort() {
+        assertThatThrownBy(() -> repository.searchPageComplex(new MemberSearchCondition(),
+            PageRequest.of(0, 10, Sort.by("createdDate"))))
+            .isInstanceOf(UnsupportedSortException.class);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.dsl.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "app.warmup.enabled=true",
+    "app.warmup.max-duration=3s",
+    "app.warmup.min-rounds=3",
+    "app.warmup.window=3"
+})
+class WarmupRunnerTest {
+
+    @Autowired
+    WarmupRunner warmupRunner;
+
+    @Autowired
+    StartupReadiness startupReadiness;
+
+    @Test
+    public void warmupBeforeReadyTest() {
+        // 기동할 때 이미 한 번 돌았다
+        assertThat(startupReadiness.getPhaseMillis()).containsKey("warmup");
+        assertThat(startupReadiness.isReady()).isTrue();
+    }
+
+    @Test
+    public void runTest() {
+        WarmupRunner.Result result = warmupRunner.run();
+
+        assertThat(result.getRounds()).isGreaterThanOrEqualTo(1);
+        if (result.getReason() == WarmupRunner.StopReason.STABLE) {
+            assertThat(result.getRounds()).isGreaterThanOrEqualTo(3);
+        }
+        assertThat(result.getFastestRoundMillis()).isLessThanOrEqualTo(result.getFirstRoundMillis());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.dsl.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * 테스트 메서드 본문에서 허용하는 SQL 수, 엔티티 로딩 수, 컬렉션 초기화 수
+ * (@BeforeEach 는 세지 않는다. 준비한 데이터는 em.flush(), em.clear() 해두어야 lazy 로딩이 제대로 세어진다.)
+ *
+ * <pre>
+ * &#64;Test
+ * &#64;QueryBudget(statements = 1, entityLoads = 0)
+ * public void searchTest() { ... }
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    int statements() default QueryStats.UNLIMITED;
+
+    int entityLoads() default QueryStats.UNLIMITED;
+
+    int collectionInits() default QueryStats.UNLIMITED;
+}
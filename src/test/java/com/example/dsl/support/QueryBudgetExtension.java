@@ -0,0 +1,47 @@
+package com.example.dsl.support;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * {@link QueryBudget} 을 테스트 메서드 본문 전후로 검사한다.
+ * 트랜잭션 롤백(afterEach) 보다 먼저 실행되므로 @Transactional 테스트에서도 쓸 수 있다.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final Namespace NAMESPACE = Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        EntityManagerFactory emf = SpringExtension.getApplicationContext(context)
+            .getBean(EntityManagerFactory.class);
+        // @BeforeEach 에서 persist 만 해둔 insert 가 본문에서 flush 되어 세어지지 않도록
+        EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        if (em != null) {
+            em.flush();
+        }
+        context.getStore(NAMESPACE).put(QueryStats.class, QueryStats.start(emf));
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryStats stats = context.getStore(NAMESPACE).remove(QueryStats.class, QueryStats.class);
+        if (stats == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+        QueryBudget budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+            .orElseGet(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), QueryBudget.class)
+                .orElse(null));
+        if (budget != null) {
+            stats.assertWithin(budget.statements(), budget.entityLoads(), budget.collectionInits());
+        }
+    }
+}
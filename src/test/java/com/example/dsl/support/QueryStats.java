@@ -0,0 +1,86 @@
+package com.example.dsl.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * start() 이후 실행된 SQL 수, 엔티티 로딩 수, 컬렉션 초기화 수를 센다.
+ * N+1 이 생기면 세 값 중 하나가 데이터 건수만큼 늘어난다.
+ *
+ * <pre>
+ * initData();
+ * em.flush();
+ * em.clear();
+ * QueryStats stats = QueryStats.start(emf);
+ * ... 검증할 코드 ...
+ * stats.assertWithin(1, 4, 0);
+ * </pre>
+ */
+public class QueryStats {
+
+    public static final int UNLIMITED = -1;
+
+    private final Statistics statistics;
+
+    private QueryStats(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public static QueryStats start(EntityManagerFactory emf) {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        RecordingStatementInspector.clear();
+        return new QueryStats(statistics);
+    }
+
+    public int statementCount() {
+        return statements().size();
+    }
+
+    public long entityLoadCount() {
+        return statistics.getEntityLoadCount();
+    }
+
+    public long collectionInitCount() {
+        return statistics.getCollectionLoadCount();
+    }
+
+    public List<String> statements() {
+        return RecordingStatementInspector.statements();
+    }
+
+    /**
+     * 예산을 넘으면 넘은 항목과 실행된 SQL 목록으로 실패한다. UNLIMITED(-1) 는 검사하지 않는다.
+     */
+    public void assertWithin(int maxStatements, int maxEntityLoads, int maxCollectionInits) {
+        List<String> violations = new ArrayList<>();
+        check(violations, "statements", statementCount(), maxStatements);
+        check(violations, "entity loads", entityLoadCount(), maxEntityLoads);
+        check(violations, "collection initializations", collectionInitCount(), maxCollectionInits);
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder("Query budget exceeded: ")
+            .append(String.join(", ", violations))
+            .append(System.lineSeparator())
+            .append("Executed statements:");
+        List<String> statements = statements();
+        for (int i = 0; i < statements.size(); i++) {
+            message.append(System.lineSeparator())
+                .append(String.format("%3d: ", i + 1))
+                .append(statements.get(i));
+        }
+        throw new AssertionError(message.toString());
+    }
+
+    private static void check(List<String> violations, String name, long actual, int max) {
+        if (max != UNLIMITED && actual > max) {
+            violations.add(name + " " + actual + " > " + max);
+        }
+    }
+}
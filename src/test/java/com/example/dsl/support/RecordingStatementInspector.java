@@ -0,0 +1,30 @@
+package com.example.dsl.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * hibernate 가 준비하는 모든 SQL 을 기록한다. (테스트 yml 의 hibernate.session_factory.statement_inspector)
+ * hibernate 가 직접 생성하는 인스턴스라 기록은 static 으로 둔다.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public static List<String> statements() {
+        return new ArrayList<>(statements);
+    }
+
+    public static void clear() {
+        statements.clear();
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.dsl.writebehind;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dsl.changelog.ChangeLog;
+import com.example.dsl.entity.Member;
+import com.example.dsl.entity.Team;
+import com.example.dsl.repository.MemberRepository;
+import com.example.dsl.writebehind.MemberWriteBehindBuffer.Durability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+
+// flush 는 직접 호출 (주기 flush 가 끼어들지 않게 간격을 길게), JDBC 로 쓰므로 데이터는 커밋하고 지움
+@SpringBootTest(properties = {
+    "app.write-behind.enabled=true",
+    "app.write-behind.flush-interval=1h"
+})
+class MemberWriteBehindBufferTest {
+
+    // FK 위반으로 이 member 의 쓰기만 실패하게
+    static final long MISSING_TEAM_ID = 999_999L;
+
+    @Autowired
+    MemberWriteBehindBuffer buffer;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ObjectProvider<ChangeLog> changeLog;
+
+    Long memberId;
+    Long member2Id;
+    Long teamBId;
+
+    @BeforeEach
+    public void initData() {
+        transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            Member member = new Member("member1", 10, teamA);
+            Member member2 = new Member("member2", 10, teamA);
+            em.persist(member);
+            em.persist(member2);
+            memberId = member.getId();
+            member2Id = member2.getId();
+            teamBId = teamB.getId();
+            return null;
+        });
+    }
+
+    @AfterEach
+    public void clearData() {
+        buffer.flush();
+        transactionTemplate.execute(status -> {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    public void coalesceTest() {
+        buffer.updateAge(memberId, 11);
+        buffer.updateAge(memberId, 12);
+        buffer.changeTeam(memberId, teamBId);
+        CompletableFuture<Void> last = buffer.updateAge(memberId, 13);
+
+        // 같은 member 의 변경은 하나로 합쳐지고 아직 DB 에는 없다
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+        assertThat(ageInDb(memberId)).isEqualTo(10);
+
+        buffer.flush();
+
+        assertThat(last).isCompleted();
+        assertThat(buffer.pendingCount()).isEqualTo(0);
+        assertThat(ageInDb(memberId)).isEqualTo(13);
+        assertThat(jdbcTemplate.queryForObject("select team_id from member where member_id = ?", Long.class, memberId))
+            .isEqualTo(teamBId);
+        assertThat(jdbcTemplate.queryForObject("select last_modified_by from member where member_id = ?", String.class, memberId))
+            .isEqualTo("write-behind");
+    }
+
+    @Test
+    public void readSeesBufferedValueTest() {
+        buffer.updateAge(memberId, 42);
+        buffer.changeTeam(memberId, teamBId);
+
+        // 읽기 전용이면 덮어쓴 값이 dirty checking 으로 쓰이지 않는다
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.execute(status -> {
+            Member findMember = memberRepository.findById(memberId).get();
+            assertThat(findMember.getAge()).isEqualTo(42);
+            assertThat(findMember.getTeam().getName()).isEqualTo("teamB");
+            return null;
+        });
+        assertThat(ageInDb(memberId)).isEqualTo(10);
+    }
+
+    @Test
+    public void failingMemberIsIsolatedTest() {
+        CompletableFuture<Void> bad = buffer.changeTeam(memberId, MISSING_TEAM_ID);
+        CompletableFuture<Void> good = buffer.updateAge(member2Id, 20);
+
+        buffer.flush();
+
+        // 다른 member 는 반영되고 실패한 member 만 다시 쌓인다
+        assertThat(good).isCompleted();
+        assertThat(ageInDb(member2Id)).isEqualTo(20);
+        assertThat(bad).isNotDone();
+        assertThat(buffer.pendingFor(memberId))
+            .hasValueSatisfying(update -> assertThat(update.getAttempts()).isEqualTo(1));
+
+        buffer.flush();
+        buffer.flush();
+
+        // max-attempts(3) 번 실패하면 dead letter
+        assertThat(bad).isCompletedExceptionally();
+        assertThat(buffer.pendingCount()).isEqualTo(0);
+        assertThat(buffer.deadLetters()).containsKey(memberId);
+    }
+
+    @Test
+    public void waitForFlushTest() {
+        MemberWriteBehindBuffer waiting = newBuffer(Durability.WAIT_FOR_FLUSH, Duration.ofMillis(50), 1000, 1);
+        try {
+            // 다음 주기 flush 가 커밋할 때까지 반환하지 않는다
+            CompletableFuture<Void> flushed = waiting.updateAge(memberId, 20);
+            assertThat(flushed).isCompleted();
+            assertThat(ageInDb(memberId)).isEqualTo(20);
+
+            // 쓰기에 실패하면 호출한 쪽으로 예외가 나간다
+            assertThatThrownBy(() -> waiting.changeTeam(memberId, MISSING_TEAM_ID))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        } finally {
+            waiting.shutdown();
+        }
+    }
+
+    @Test
+    public void maxPendingTriggersFlushTest() throws Exception {
+        MemberWriteBehindBuffer small = newBuffer(Durability.ASYNC, Duration.ofHours(1), 2, 3);
+        try {
+            CompletableFuture<Void> first = small.updateAge(memberId, 21);
+            CompletableFuture<Void> second = small.updateAge(member2Id, 22);
+
+            // 주기 flush 는 1시간 뒤지만 max-pending 에 닿아서 바로 flush 된다
+            second.get(5, TimeUnit.SECONDS);
+            assertThat(first).isCompleted();
+            assertThat(ageInDb(memberId)).isEqualTo(21);
+            assertThat(ageInDb(member2Id)).isEqualTo(22);
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    public void shutdownFlushesTest() {
+        MemberWriteBehindBuffer closing = newBuffer(Durability.ASYNC, Duration.ofHours(1), 1000, 3);
+        CompletableFuture<Void> flushed = closing.updateAge(memberId, 30);
+        assertThat(flushed).isNotDone();
+
+        closing.shutdown();
+
+        assertThat(flushed).isCompleted();
+        assertThat(ageInDb(memberId)).isEqualTo(30);
+    }
+
+    @Test
+    public void enqueueAfterShutdownTest() {
+        MemberWriteBehindBuffer closed = newBuffer(Durability.ASYNC, Duration.ofHours(1), 1, 3);
+        closed.shutdown();
+
+        // max-pending 에 닿아도 멈춘 scheduler 에 flush 를 넣으려다 실패하지 않는다
+        CompletableFuture<Void> late = closed.updateAge(memberId, 40);
+        assertThat(late).isNotDone();
+        assertThat(closed.pendingCount()).isEqualTo(1);
+    }
+
+    private MemberWriteBehindBuffer newBuffer(Durability durability, Duration flushInterval, int maxPending,
+        int maxAttempts) {
+        return new MemberWriteBehindBuffer(jdbcTemplate, transactionTemplate.getTransactionManager(), changeLog,
+            new SimpleMeterRegistry(), durability, flushInterval, maxPending, 500, maxAttempts);
+    }
+
+    private Integer ageInDb(Long id) {
+        return jdbcTemplate.queryForObject("select age from member where member_id = ?", Integer.class, id);
+    }
+}